@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.DomainParts;
+import com.github.alturkovic.domain.DomainRegistry;
+import com.github.alturkovic.domain.DomainRegistryBuilder;
+import com.github.alturkovic.domain.rule.Rule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a batch of Zipf distributed hosts one by one, as a batch and as a parallel stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"100000"})
+    private int batchSize;
+
+    private DomainRegistry registry;
+    private String[] hosts;
+
+    @Setup
+    public void setUp() {
+        List<Rule> rules = PublicSuffixList.rules();
+        registry = new DomainRegistryBuilder().withRules(rules).build();
+
+        Random random = new Random(42);
+        String[] distinctHosts = HostMix.MIXED.hosts(rules, batchSize / 4, random);
+        hosts = new ZipfSampler(distinctHosts.length, 1.0).sample(distinctHosts, batchSize, random);
+    }
+
+    @Benchmark
+    public DomainParts[] parseOneByOne() {
+        DomainParts[] parts = new DomainParts[hosts.length];
+        for (int i = 0; i < hosts.length; i++) {
+            parts[i] = registry.parse(hosts[i]);
+        }
+        return parts;
+    }
+
+    @Benchmark
+    public DomainParts[] parseAll() {
+        return registry.parseAll(hosts);
+    }
+
+    @Benchmark
+    public Object[] parseParallelStream() {
+        return registry.parse(Arrays.stream(hosts).parallel()).toArray();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.registry.RuleIndexType;
+import com.github.alturkovic.domain.registry.RuleRegistry;
+import com.github.alturkovic.domain.registry.RuleRegistryFactory;
+import com.github.alturkovic.domain.registry.RuleRegistrySnapshot;
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.rule.RuleParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get from the Public Suffix List to a usable {@link RuleRegistry}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildBenchmark {
+
+    @Param({"NODE_TRIE", "ARRAY_TRIE", "SUFFIX_HASH"})
+    private RuleIndexType indexType;
+
+    private byte[] list;
+    private List<Rule> rules;
+    private RuleRegistry registry;
+    private byte[] snapshot;
+    private List<Rule> added;
+    private List<Rule> removed;
+
+    @Setup
+    public void setUp() throws IOException {
+        list = PublicSuffixList.bytes();
+        rules = new RuleParser().parse(new ByteArrayInputStream(list));
+        registry = new RuleRegistryFactory().build(rules, indexType);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RuleRegistrySnapshot().write(registry, output);
+        snapshot = output.toByteArray();
+
+        added = new ArrayList<>();
+        removed = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Rule rule = rules.get(i * rules.size() / 30);
+            removed.add(rule);
+            added.add(new Rule("new" + i + "." + rule.getPattern()));
+        }
+    }
+
+    @Benchmark
+    public List<Rule> parseRules() {
+        return new RuleParser().parse(new ByteArrayInputStream(list));
+    }
+
+    @Benchmark
+    public RuleRegistry buildRegistry() {
+        return new RuleRegistryFactory().build(rules, indexType);
+    }
+
+    @Benchmark
+    public RuleRegistry parseAndBuildRegistry() {
+        return new RuleRegistryFactory().build(new RuleParser().parse(new ByteArrayInputStream(list)), indexType);
+    }
+
+    @Benchmark
+    public RuleRegistry readSnapshot() throws IOException {
+        return new RuleRegistrySnapshot().read(new ByteArrayInputStream(snapshot));
+    }
+
+    @Benchmark
+    public RuleRegistry updateRegistry() {
+        return new RuleRegistryFactory().update(registry, added, removed);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.DomainParts;
+import com.github.alturkovic.domain.DomainRegistry;
+import com.github.alturkovic.domain.DomainRegistryBuilder;
+import com.github.alturkovic.domain.rule.Rule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput of Zipf distributed hosts with the parse result caches, single-threaded and on all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int DISTINCT_HOSTS = 100_000;
+    private static final int SAMPLES = 1 << 20;
+
+    /**
+     * {@code NONE}, {@code SHARED} for the shared cache, {@code THREAD_LOCAL} for the per-thread cache
+     * in front of the shared cache.
+     */
+    @Param({"NONE", "SHARED", "THREAD_LOCAL"})
+    private String cache;
+
+    @Param({"10000"})
+    private int cacheSize;
+
+    @Param({"1024"})
+    private int threadLocalSlots;
+
+    private DomainRegistry registry;
+    private String[] hosts;
+
+    @Setup
+    public void setUp() {
+        List<Rule> rules = PublicSuffixList.rules();
+        DomainRegistryBuilder builder = new DomainRegistryBuilder().withRules(rules);
+        if (!"NONE".equals(cache)) {
+            builder.withCache(cacheSize);
+        }
+        if ("THREAD_LOCAL".equals(cache)) {
+            builder.withThreadLocalCache(threadLocalSlots);
+        }
+        registry = builder.build();
+
+        Random random = new Random(42);
+        String[] distinctHosts = HostMix.MIXED.hosts(rules, DISTINCT_HOSTS, random);
+        hosts = new ZipfSampler(DISTINCT_HOSTS, 1.0).sample(distinctHosts, SAMPLES, random);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = (int) Thread.currentThread().getId() * 7919;
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Benchmark
+    public DomainParts parse(Cursor cursor) {
+        return registry.parse(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DomainParts parseMultiThreaded(Cursor cursor) {
+        return registry.parse(hosts[cursor.next()]);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.Punycode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Realistic host shapes generated from the bundled rules.
+ */
+public enum HostMix {
+    /**
+     * Common hosts, one or two labels below a registrable name under a normal rule.
+     */
+    SHALLOW {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            List<Rule> candidates = candidates(rules, rule -> isNormal(rule) && isAscii(rule));
+            return index -> {
+                Rule rule = pick(candidates, random);
+                return (random.nextBoolean() ? "www." : "") + "name" + random.nextInt(1000) + "." + rule.getPattern();
+            };
+        }
+    },
+    /**
+     * Five subdomain labels below a registrable name under a normal rule.
+     */
+    DEEP {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            List<Rule> candidates = candidates(rules, rule -> isNormal(rule) && isAscii(rule));
+            return index -> {
+                Rule rule = pick(candidates, random);
+                return "a.b.c.d.e.name" + random.nextInt(1000) + "." + rule.getPattern();
+            };
+        }
+    },
+    /**
+     * Hosts matched by wildcard and exception rules.
+     */
+    WILDCARD {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            List<Rule> candidates = candidates(rules, rule -> !isNormal(rule));
+            return index -> {
+                Rule rule = pick(candidates, random);
+                return "www.name" + random.nextInt(1000) + "." + rule.getPattern().replace("*", "any");
+            };
+        }
+    },
+    /**
+     * Hosts under internationalized rules, half of them Punycode encoded.
+     */
+    IDN {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            List<Rule> candidates = candidates(rules, rule -> isNormal(rule) && !isAscii(rule));
+            return index -> {
+                Rule rule = pick(candidates, random);
+                String host = "www.name" + random.nextInt(1000) + "." + rule.getPattern();
+                return random.nextBoolean() ? Punycode.toAscii(host) : host;
+            };
+        }
+    },
+    /**
+     * Hosts under top level domains that are not in the list.
+     */
+    UNKNOWN {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            return index -> "www.name" + random.nextInt(1000) + ".invalid" + random.nextInt(100);
+        }
+    },
+    /**
+     * Mostly common hosts with 10% of each other shape.
+     */
+    MIXED {
+        @Override
+        IntFunction<String> generator(List<Rule> rules, Random random) {
+            List<IntFunction<String>> shapes = new ArrayList<>(Collections.nCopies(6, SHALLOW.generator(rules, random)));
+            shapes.add(DEEP.generator(rules, random));
+            shapes.add(WILDCARD.generator(rules, random));
+            shapes.add(IDN.generator(rules, random));
+            shapes.add(UNKNOWN.generator(rules, random));
+            return index -> shapes.get(index % shapes.size()).apply(index);
+        }
+    };
+
+    /**
+     * Generate {@code count} hosts of this shape.
+     * <p>
+     * The rules are filtered once per call, so call this while setting up a benchmark.
+     *
+     * @param rules to generate hosts under
+     * @param count of hosts to generate
+     * @param random source of randomness
+     * @return generated hosts
+     */
+    String[] hosts(List<Rule> rules, int count, Random random) {
+        IntFunction<String> generator = generator(rules, random);
+        String[] hosts = new String[count];
+        for (int i = 0; i < count; i++) {
+            hosts[i] = generator.apply(i);
+        }
+        return hosts;
+    }
+
+    /**
+     * Create a generator of the host at each index, with the candidate rules already filtered.
+     */
+    abstract IntFunction<String> generator(List<Rule> rules, Random random);
+
+    private static List<Rule> candidates(List<Rule> rules, Predicate<Rule> filter) {
+        List<Rule> candidates = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (filter.test(rule)) {
+                candidates.add(rule);
+            }
+        }
+        return candidates;
+    }
+
+    private static Rule pick(List<Rule> candidates, Random random) {
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private static boolean isNormal(Rule rule) {
+        return !rule.isExceptionRule() && !rule.getPattern().contains(Rule.WILDCARD);
+    }
+
+    private static boolean isAscii(Rule rule) {
+        return rule.getPattern().chars().allMatch(c -> c < 0x80);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.DomainParts;
+import com.github.alturkovic.domain.DomainRegistry;
+import com.github.alturkovic.domain.DomainRegistryBuilder;
+import com.github.alturkovic.domain.registry.RuleIndexType;
+import com.github.alturkovic.domain.rule.Rule;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput for the host shapes of {@link HostMix}, single-threaded and on all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int HOSTS = 1 << 14;
+
+    @Param({"NODE_TRIE", "ARRAY_TRIE", "SUFFIX_HASH"})
+    private RuleIndexType indexType;
+
+    @Param({"SHALLOW", "DEEP", "WILDCARD", "IDN", "UNKNOWN", "MIXED"})
+    private HostMix hostMix;
+
+    private DomainRegistry registry;
+    private String[] hosts;
+    private byte[][] hostBytes;
+
+    @Setup
+    public void setUp() {
+        List<Rule> rules = PublicSuffixList.rules();
+        registry = new DomainRegistryBuilder()
+            .withRules(rules)
+            .withIndexType(indexType)
+            .build();
+
+        hosts = hostMix.hosts(rules, HOSTS, new Random(42));
+        hostBytes = new byte[HOSTS][];
+        for (int i = 0; i < HOSTS; i++) {
+            hostBytes[i] = hosts[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            return next++ & (HOSTS - 1);
+        }
+    }
+
+    @Benchmark
+    public DomainParts parse(Cursor cursor) {
+        return registry.parse(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    public Optional<String> getPublicSuffix(Cursor cursor) {
+        return registry.getPublicSuffix(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    public int indexOfPublicSuffixBytes(Cursor cursor) {
+        byte[] host = hostBytes[cursor.next()];
+        return registry.indexOfPublicSuffix(host, 0, host.length);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public DomainParts parseMultiThreaded(Cursor cursor) {
+        return registry.parse(hosts[cursor.next()]);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.benchmark;
+
+import com.github.alturkovic.domain.util.Punycode;
+import com.github.alturkovic.domain.util.PunycodeCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.IDN;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding cost of plain ASCII and internationalized hosts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PunycodeBenchmark {
+    private static final int HOSTS = 1 << 12;
+
+    @Param({"SHALLOW", "IDN"})
+    private HostMix hostMix;
+
+    private String[] hosts;
+
+    @Setup
+    public void setUp() {
+        hosts = hostMix.hosts(PublicSuffixList.rules(), HOSTS, new Random(42));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            return next++ & (HOSTS - 1);
+        }
+    }
+
+    @Benchmark
+    public String codecDecode(Cursor cursor) {
+        return new PunycodeCodec().decode(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    public String toUnicode(Cursor cursor) {
+        return Punycode.toUnicode(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    public String idnToUnicode(Cursor cursor) {
+        return IDN.toUnicode(hosts[cursor.next()]);
+    }
+
+    @Benchmark
+    public String toAscii(Cursor cursor) {
+        return Punycode.toAscii(hosts[cursor.next()]);
+    }
+}
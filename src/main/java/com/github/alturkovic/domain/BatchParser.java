@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import lombok.AllArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Parses batches of domains in parallel.
+ * <p>
+ * Duplicate domains are parsed only once. The unique domains are split in halves
+ * until each part has at most {@code threshold} domains, and the parts are parsed in {@code pool}.
+ * Batches up to {@code threshold} are parsed in the calling thread.
+ */
+@AllArgsConstructor
+class BatchParser {
+    static final int DEFAULT_THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    BatchParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    DomainParts[] parseAll(String[] domains, Function<String, DomainParts> parser) {
+        Map<String, Integer> uniqueIndexes = new HashMap<>();
+        int[] indexes = new int[domains.length];
+        String[] uniqueDomains = new String[domains.length];
+        for (int i = 0; i < domains.length; i++) {
+            Integer uniqueIndex = uniqueIndexes.putIfAbsent(domains[i], uniqueIndexes.size());
+            if (uniqueIndex == null) {
+                uniqueIndex = uniqueIndexes.size() - 1;
+                uniqueDomains[uniqueIndex] = domains[i];
+            }
+            indexes[i] = uniqueIndex;
+        }
+
+        DomainParts[] uniqueParts = new DomainParts[uniqueIndexes.size()];
+        ParseTask task = new ParseTask(uniqueDomains, uniqueParts, parser, 0, uniqueParts.length);
+        if (uniqueParts.length <= threshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        DomainParts[] parts = new DomainParts[domains.length];
+        for (int i = 0; i < domains.length; i++) {
+            parts[i] = uniqueParts[indexes[i]];
+        }
+
+        return parts;
+    }
+
+    @AllArgsConstructor
+    private class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] domains;
+        private final DomainParts[] parts;
+        private final Function<String, DomainParts> parser;
+        private final int from;
+        private final int to;
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    parts[i] = parser.apply(domains[i]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new ParseTask(domains, parts, parser, from, middle),
+                new ParseTask(domains, parts, parser, middle, to)
+            );
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Describes the Public Suffix List snapshot bundled with this library.
+ * <p>
+ * The snapshot is compiled from a pinned copy of the list during the build,
+ * so loading it with {@link DomainRegistryBuilder#withBundledRules()} needs no network access and parses no text.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BundledRules {
+    static final String SNAPSHOT_RESOURCE = "public_suffix_list.snapshot";
+    static final String PROPERTIES_RESOURCE = "public_suffix_list.properties";
+    static final String VERSION_PROPERTY = "version";
+    static final String RULE_COUNT_PROPERTY = "rules";
+
+    /**
+     * Get the version of the bundled list.
+     * <p>
+     * This is the {@code public-suffix-list.version} build property, or if it is not set the {@code VERSION} header
+     * of the list or the SHA-256 digest of the file if it has none.
+     *
+     * @return bundled list version
+     */
+    public static String getVersion() {
+        return Metadata.PROPERTIES.getProperty(VERSION_PROPERTY);
+    }
+
+    /**
+     * Get the number of rules in the bundled list.
+     *
+     * @return bundled rule count
+     */
+    public static int getRuleCount() {
+        return Integer.parseInt(Metadata.PROPERTIES.getProperty(RULE_COUNT_PROPERTY));
+    }
+
+    static InputStream openSnapshot() {
+        return open(SNAPSHOT_RESOURCE);
+    }
+
+    private static InputStream open(String resource) {
+        InputStream inputStream = BundledRules.class.getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IllegalStateException("Bundled rules resource '" + resource + "' is missing, it is generated during the build");
+        }
+        return inputStream;
+    }
+
+    private static final class Metadata {
+        private static final Properties PROPERTIES = load();
+
+        private static Properties load() {
+            try (InputStream inputStream = open(PROPERTIES_RESOURCE)) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                return properties;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.registry.RuleIndexType;
+import com.github.alturkovic.domain.registry.RuleRegistry;
+import com.github.alturkovic.domain.registry.RuleRegistryFactory;
+import com.github.alturkovic.domain.registry.RuleRegistrySnapshot;
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.rule.RuleParser;
+import com.github.alturkovic.domain.util.StringUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Compiles a Public Suffix List file into the resources read by {@link BundledRules}.
+ * <p>
+ * Runs during the build with the list file, the output directory and optionally the list version as arguments.
+ * The rules are written as an {@link RuleIndexType#ARRAY_TRIE} snapshot, so they are loaded with a bulk copy of arrays.
+ * The list is parsed with {@link RuleParser#strict()}, so an invalid line fails the build.
+ * <p>
+ * This class is only used by the build and is excluded from the library jar.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BundledRulesGenerator {
+    private static final String VERSION_HEADER = "// VERSION:";
+
+    /**
+     * Generate the bundled rule resources.
+     *
+     * @param args the list file, the classes output directory and optionally the list version
+     * @throws IOException if reading the list or writing the resources fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            throw new IllegalArgumentException("Usage: BundledRulesGenerator <list file> <output directory> [list version]");
+        }
+        generate(Paths.get(args[0]), Paths.get(args[1]), args.length == 3 ? args[2] : null);
+    }
+
+    static void generate(Path list, Path outputDirectory, String version) throws IOException {
+        List<Rule> rules = RuleParser.strict().parse(list);
+        RuleRegistry registry = new RuleRegistryFactory().build(rules, RuleIndexType.ARRAY_TRIE);
+
+        Path target = outputDirectory.resolve(BundledRules.class.getPackage().getName().replace('.', '/'));
+        Files.createDirectories(target);
+        try (OutputStream outputStream = Files.newOutputStream(target.resolve(BundledRules.SNAPSHOT_RESOURCE))) {
+            new RuleRegistrySnapshot().write(registry, outputStream);
+        }
+
+        // written by hand, Properties.store adds a timestamp that would make the build unreproducible
+        try (Writer writer = Files.newBufferedWriter(target.resolve(BundledRules.PROPERTIES_RESOURCE), StandardCharsets.ISO_8859_1)) {
+            writer.write(BundledRules.VERSION_PROPERTY + "=" + (StringUtils.isBlank(version) ? versionOf(list) : version.trim()) + "\n");
+            writer.write(BundledRules.RULE_COUNT_PROPERTY + "=" + registry.getRuleCount() + "\n");
+        }
+    }
+
+    static String versionOf(Path list) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(list, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null && (line.isEmpty() || line.startsWith("//"))) {
+                if (line.startsWith(VERSION_HEADER)) {
+                    return line.substring(VERSION_HEADER.length()).trim();
+                }
+            }
+        }
+        return "sha256:" + sha256(list);
+    }
+
+    private static String sha256(Path list) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(list));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.StringUtils;
+
+import java.util.Optional;
+
+/**
+ * Parts of a domain as determined by {@link DomainRegistry#parse(String)}.
+ * <p>
+ * Only the label offsets of the original domain are stored, all parts are extracted from them on access.
+ * The parts are returned in the same format as the original domain was.
+ * <p>
+ * For example, {@code sub.test.blogspot.com} is split into:
+ * <ul>
+ *     <li>subdomain: {@code sub}</li>
+ *     <li>registrable name: {@code test}</li>
+ *     <li>public suffix: {@code blogspot.com}</li>
+ * </ul>
+ */
+public final class DomainParts {
+    private static final int NONE = -1;
+
+    private final String domain;
+    private final int end;
+    private final int publicSuffixStart;
+    private final int registrableNameStart;
+
+    private DomainParts(String domain, int end, int publicSuffixStart, int registrableNameStart) {
+        this.domain = domain;
+        this.end = end;
+        this.publicSuffixStart = publicSuffixStart;
+        this.registrableNameStart = registrableNameStart;
+    }
+
+    static DomainParts of(String domain, int publicSuffixLabels) {
+        int publicSuffixStart = DomainUtils.suffixStart(domain, publicSuffixLabels);
+        if (publicSuffixStart == NONE) {
+            return empty(domain);
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        int registrableNameStart = publicSuffixStart == 0 ? NONE : DomainUtils.labelStart(domain, publicSuffixStart - 1);
+        return new DomainParts(domain, end, publicSuffixStart, registrableNameStart);
+    }
+
+    boolean hasPublicSuffix() {
+        return publicSuffixStart != NONE;
+    }
+
+    static DomainParts empty(String domain) {
+        return new DomainParts(domain, NONE, NONE, NONE);
+    }
+
+    /**
+     * Returns the parsed domain.
+     *
+     * @return original domain
+     */
+    public String getDomain() {
+        return domain;
+    }
+
+    /**
+     * Returns the public suffix.
+     * <p>
+     * If the domain is already a public suffix, it will be returned without trailing dots.
+     *
+     * @return public suffix
+     * @see DomainRegistry#getPublicSuffix(String)
+     */
+    public Optional<String> getPublicSuffix() {
+        if (publicSuffixStart == NONE) {
+            return Optional.empty();
+        }
+
+        return Optional.of(domain.substring(publicSuffixStart, end));
+    }
+
+    /**
+     * Returns the registrable domain name.
+     *
+     * @return registrable domain name
+     * @see DomainRegistry#getRegistrableName(String)
+     */
+    public Optional<String> getRegistrableName() {
+        if (registrableNameStart == NONE) {
+            return Optional.empty();
+        }
+
+        return Optional.of(domain.substring(registrableNameStart, publicSuffixStart - 1));
+    }
+
+    /**
+     * Returns the subdomain.
+     *
+     * @return subdomain
+     * @see DomainRegistry#getSubDomain(String)
+     */
+    public Optional<String> getSubDomain() {
+        if (registrableNameStart == NONE || registrableNameStart == 0) {
+            return Optional.empty();
+        }
+
+        String subDomain = domain.substring(0, registrableNameStart - 1);
+        if (StringUtils.isBlank(subDomain)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(subDomain);
+    }
+
+    /**
+     * Returns the domain name without the subdomain.
+     * <p>
+     * Trailing dots of the domain are kept, unlike in {@link DomainView#registrableDomain()}.
+     *
+     * @return stripped domain
+     * @see DomainRegistry#stripSubDomain(String)
+     */
+    public Optional<String> getRegistrableDomain() {
+        if (registrableNameStart == NONE) {
+            return Optional.empty();
+        }
+
+        return Optional.of(domain.substring(registrableNameStart));
+    }
+
+    @Override
+    public String toString() {
+        return domain;
+    }
+}
@@ -24,13 +24,23 @@
 
 package com.github.alturkovic.domain;
 
+import com.github.alturkovic.domain.registry.RuleProfiler;
 import com.github.alturkovic.domain.registry.RuleRegistry;
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.AsciiCharSequence;
 import com.github.alturkovic.domain.util.DomainUtils;
-import com.github.alturkovic.domain.util.PunycodeCodec;
-import lombok.AllArgsConstructor;
+import com.github.alturkovic.domain.util.LineStreams;
+import com.github.alturkovic.domain.util.Punycode;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * API for the Public Suffix List rules.
@@ -45,9 +55,252 @@ import java.util.Optional;
  * @see DomainRegistryBuilder
  * @see <a href="https://publicsuffix.org/">https://publicsuffix.org/</a>
  */
-@AllArgsConstructor
 public class DomainRegistry {
     private final RuleRegistry ruleRegistry;
+    private final RuleProfiler profiler;
+    private final TldFilter tldFilter;
+    private final BatchParser batchParser;
+    private final ParseCache cache;
+    private final ThreadLocalParseCache threadCache;
+    private final LookupRecorder recorder;
+
+    DomainRegistry(RuleRegistry ruleRegistry, BatchParser batchParser, ParseCache cache, ThreadLocalParseCache threadCache, LookupRecorder recorder) {
+        this.ruleRegistry = ruleRegistry;
+        this.profiler = ruleRegistry.getProfiler().orElse(null);
+        this.tldFilter = TldFilter.of(ruleRegistry.getTopLevelLabels());
+        this.batchParser = batchParser;
+        this.cache = cache;
+        this.threadCache = threadCache;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Create a registry with default settings, prefer {@link DomainRegistryBuilder}.
+     *
+     * @param ruleRegistry rules to use
+     */
+    public DomainRegistry(RuleRegistry ruleRegistry) {
+        this(ruleRegistry, new BatchParser(), null, null, null);
+    }
+
+    /**
+     * Split a domain into its parts with a single rule lookup.
+     * <p>
+     * Prefer this method over calling several of the other methods for the same domain.
+     * <p>
+     * This method is case insensitive. Domains whose top level label is not covered by any rule
+     * are rejected before they are decoded or cached.
+     *
+     * @param domain to parse
+     * @return parts of the domain, all empty if the domain is not under a public suffix
+     * @see DomainRegistryBuilder#withCache(int)
+     * @see DomainRegistryBuilder#withThreadLocalCache(int)
+     */
+    public DomainParts parse(String domain) {
+        if (recorder == null) {
+            return parseFiltered(domain);
+        }
+
+        long start = recorder.start();
+        DomainParts parts = parseFiltered(domain);
+        recorder.record(domain, parts.hasPublicSuffix(), start);
+        return parts;
+    }
+
+    /**
+     * Fill {@code view} with the parts of a domain, see {@link #parse(String)}.
+     * <p>
+     * Only label offsets are stored in the view, so reusing one view per thread parses without creating garbage
+     * for ASCII and Unicode domains. The caches are not used.
+     *
+     * @param domain to parse
+     * @param view to fill
+     * @return {@code view}
+     */
+    public DomainView parse(CharSequence domain, DomainView view) {
+        long start = recorder == null ? 0 : recorder.start();
+        view.set(domain, countPublicSuffixLabels(domain));
+        if (recorder != null) {
+            recorder.record(domain, view.hasPublicSuffix(), start);
+        }
+        return view;
+    }
+
+    /**
+     * Parse a batch of domains, see {@link #parse(String)}.
+     * <p>
+     * Duplicate domains are parsed only once. Large batches are split and parsed in parallel,
+     * see {@link DomainRegistryBuilder#withBatchThreshold(int)}.
+     *
+     * @param domains to parse
+     * @return parts of the domains in the order of {@code domains}
+     */
+    public DomainParts[] parseAll(String[] domains) {
+        return batchParser.parseAll(domains, this::parse);
+    }
+
+    /**
+     * Parse a batch of domains, see {@link #parseAll(String[])}.
+     *
+     * @param domains to parse
+     * @return parts of the domains in the order of {@code domains}
+     */
+    public List<DomainParts> parseAll(List<String> domains) {
+        return Arrays.asList(parseAll(domains.toArray(new String[0])));
+    }
+
+    /**
+     * Lazily parse a stream of domains, see {@link #parse(String)}.
+     * <p>
+     * The returned stream is parallel if {@code domains} is.
+     *
+     * @param domains to parse
+     * @return parts of the domains in the order of {@code domains}
+     */
+    public Stream<DomainParts> parse(Stream<String> domains) {
+        return domains.map(this::parse);
+    }
+
+    /**
+     * Lazily parse a UTF-8 file with one domain per line, see {@link #parse(String)}.
+     * <p>
+     * The file is read on demand and split into byte ranges when the stream is parallel,
+     * so files of any size are parsed in constant memory.
+     * The returned stream must be closed to release the file.
+     *
+     * @param path of the file
+     * @return parts of the domains in the order of the lines
+     * @throws UncheckedIOException if the file cannot be opened
+     */
+    public Stream<DomainParts> parseLines(Path path) {
+        try {
+            return parse(LineStreams.lines(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lazily parse domains read from {@code reader}, one domain per line, see {@link #parse(String)}.
+     * <p>
+     * Closing the returned stream closes the {@code reader}.
+     *
+     * @param reader to read domains from
+     * @return parts of the domains in the order of the lines
+     */
+    public Stream<DomainParts> parseLines(Reader reader) {
+        return parse(LineStreams.lines(reader));
+    }
+
+    /**
+     * Find where the public suffix of a domain starts, without copying the domain.
+     * <p>
+     * This method is case insensitive.
+     *
+     * @param domain to search
+     * @return index of the public suffix in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfPublicSuffix(CharSequence domain) {
+        long start = recorder == null ? 0 : recorder.start();
+        int index = DomainUtils.suffixStart(domain, countPublicSuffixLabels(domain));
+        if (recorder != null) {
+            recorder.record(domain, index >= 0, start);
+        }
+        return index;
+    }
+
+    /**
+     * Find where the public suffix of a host starts, see {@link #indexOfPublicSuffix(CharSequence)}.
+     * <p>
+     * ASCII hosts are matched in place, other hosts are decoded as UTF-8 first.
+     *
+     * @param domain bytes of the host
+     * @param offset of the host in {@code domain}
+     * @param length of the host
+     * @return index of the public suffix in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfPublicSuffix(byte[] domain, int offset, int length) {
+        return offsetIndex(offset, indexOfPublicSuffix(AsciiCharSequence.of(domain, offset, length)));
+    }
+
+    /**
+     * Find where the public suffix of the host between position and limit starts,
+     * see {@link #indexOfPublicSuffix(byte[], int, int)}.
+     * <p>
+     * The position of {@code domain} is not changed.
+     *
+     * @param domain bytes of the host
+     * @return index of the public suffix in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfPublicSuffix(ByteBuffer domain) {
+        return offsetIndex(domain.position(), indexOfPublicSuffix(AsciiCharSequence.of(domain)));
+    }
+
+    /**
+     * Find where the registrable name of a domain starts, without copying the domain.
+     * <p>
+     * The subdomain, if any, ends one char before the returned index.
+     * <p>
+     * This method is case insensitive.
+     *
+     * @param domain to search
+     * @return index of the registrable name in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfRegistrableName(CharSequence domain) {
+        long start = recorder == null ? 0 : recorder.start();
+        int publicSuffixLabels = countPublicSuffixLabels(domain);
+        int index = publicSuffixLabels == 0 ? -1 : DomainUtils.suffixStart(domain, publicSuffixLabels + 1);
+        if (recorder != null) {
+            recorder.record(domain, publicSuffixLabels > 0 && DomainUtils.suffixStart(domain, publicSuffixLabels) >= 0, start);
+        }
+        return index;
+    }
+
+    /**
+     * Find where the registrable name of a host starts, see {@link #indexOfRegistrableName(CharSequence)}.
+     * <p>
+     * ASCII hosts are matched in place, other hosts are decoded as UTF-8 first.
+     *
+     * @param domain bytes of the host
+     * @param offset of the host in {@code domain}
+     * @param length of the host
+     * @return index of the registrable name in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfRegistrableName(byte[] domain, int offset, int length) {
+        return offsetIndex(offset, indexOfRegistrableName(AsciiCharSequence.of(domain, offset, length)));
+    }
+
+    /**
+     * Find where the registrable name of the host between position and limit starts,
+     * see {@link #indexOfRegistrableName(byte[], int, int)}.
+     * <p>
+     * The position of {@code domain} is not changed.
+     *
+     * @param domain bytes of the host
+     * @return index of the registrable name in {@code domain}, {@code -1} if there is none
+     */
+    public int indexOfRegistrableName(ByteBuffer domain) {
+        return offsetIndex(domain.position(), indexOfRegistrableName(AsciiCharSequence.of(domain)));
+    }
+
+    /**
+     * Statistics of the parse result cache.
+     *
+     * @return cache statistics, empty if the cache is disabled
+     * @see DomainRegistryBuilder#withCache(int)
+     */
+    public Optional<CacheStats> getCacheStats() {
+        return Optional.ofNullable(cache).map(ParseCache::stats);
+    }
+
+    /**
+     * Rule hit counts of a registry built with {@link DomainRegistryBuilder#withRuleProfiling()}.
+     *
+     * @return profiler, empty if rule profiling is disabled
+     */
+    public Optional<RuleProfiler> getRuleProfiler() {
+        return ruleRegistry.getProfiler();
+    }
 
     /**
      * Find the public suffix of a domain.
@@ -60,12 +313,7 @@ public class DomainRegistry {
      * @return public suffix
      */
     public Optional<String> getPublicSuffix(String domain) {
-        PunycodeCodec punycode = new PunycodeCodec();
-        String decodedDomain = punycode.decode(domain);
-
-        return ruleRegistry.findRule(decodedDomain)
-            .flatMap(rule -> rule.match(decodedDomain))
-            .map(punycode::recode);
+        return parse(domain).getPublicSuffix();
     }
 
     /**
@@ -77,8 +325,7 @@ public class DomainRegistry {
      * @return registrable domain name
      */
     public Optional<String> getRegistrableName(String domain) {
-        return getPublicSuffix(domain)
-            .flatMap(publicSuffix -> extractRegistrableName(domain, publicSuffix));
+        return parse(domain).getRegistrableName();
     }
 
     /**
@@ -90,8 +337,7 @@ public class DomainRegistry {
      * @return subdomain
      */
     public Optional<String> getSubDomain(String domain) {
-        return getPublicSuffix(domain)
-            .flatMap(publicSuffix -> extractSubDomain(domain, publicSuffix));
+        return parse(domain).getSubDomain();
     }
 
     /**
@@ -103,41 +349,78 @@ public class DomainRegistry {
      * @return stripped domain
      */
     public Optional<String> stripSubDomain(String domain) {
-        return getRegistrableName(domain)
-            .map(domain::indexOf)
-            .map(domain::substring);
+        return parse(domain).getRegistrableDomain();
+    }
+
+    private DomainParts parseFiltered(String domain) {
+        if (!mightHavePublicSuffix(domain)) {
+            return DomainParts.empty(domain);
+        }
+
+        return parseCached(domain);
     }
 
-    private Optional<String> extractRegistrableName(String domain, String publicSuffix) {
-        List<String> labels = extractNonSuffixLabels(domain, publicSuffix);
-        if (labels == null) {
-            return Optional.empty();
+    private DomainParts parseCached(String domain) {
+        if (threadCache != null) {
+            return threadCache.get(domain, this::parseShared);
         }
 
-        String registrableName = labels.get(labels.size() - 1);
-        return Optional.of(registrableName);
+        return parseShared(domain);
     }
 
-    private Optional<String> extractSubDomain(String domain, String publicSuffix) {
-        List<String> labels = extractNonSuffixLabels(domain, publicSuffix);
-        if (labels == null) {
-            return Optional.empty();
+    private DomainParts parseShared(String domain) {
+        if (cache != null) {
+            return cache.get(domain, this::parseUncached);
         }
 
-        List<String> stripLastLabel = labels.subList(0, labels.size() - 1);
-        String subDomain = DomainUtils.joinLabels(stripLastLabel);
-        return Optional.ofNullable(subDomain);
+        return parseUncached(domain);
     }
 
-    private List<String> extractNonSuffixLabels(String domain, String publicSuffix) {
-        List<String> domainLabels = DomainUtils.splitLabels(domain);
-        List<String> suffixLabels = DomainUtils.splitLabels(publicSuffix);
+    private DomainParts parseUncached(String domain) {
+        return DomainParts.of(domain, lookupPublicSuffixLabels(domain));
+    }
 
-        if (domainLabels.size() == suffixLabels.size()) {
-            return null;
+    private int countPublicSuffixLabels(CharSequence domain) {
+        CharSequence lookupDomain = domain;
+        if (domain instanceof AsciiCharSequence && !((AsciiCharSequence) domain).isAscii()) {
+            lookupDomain = ((AsciiCharSequence) domain).decode();
         }
 
-        int registrableNameIndex = domainLabels.size() - suffixLabels.size();
-        return domainLabels.subList(0, registrableNameIndex);
+        if (!mightHavePublicSuffix(lookupDomain)) {
+            return 0;
+        }
+
+        return lookupPublicSuffixLabels(lookupDomain);
+    }
+
+    private boolean mightHavePublicSuffix(CharSequence domain) {
+        if (tldFilter.mightContain(domain)) {
+            return true;
+        }
+
+        if (profiler != null) {
+            profiler.recordUnmatched();
+        }
+        return false;
+    }
+
+    private int lookupPublicSuffixLabels(CharSequence domain) {
+        CharSequence lookupDomain = domain;
+        if (DomainUtils.containsAceLabel(lookupDomain)) {
+            lookupDomain = Punycode.toUnicode(lookupDomain.toString());
+        }
+
+        return ruleRegistry.findRule(lookupDomain)
+            .map(DomainRegistry::countPublicSuffixLabels)
+            .orElse(0);
+    }
+
+    private static int offsetIndex(int offset, int index) {
+        return index < 0 ? index : offset + index;
+    }
+
+    private static int countPublicSuffixLabels(Rule rule) {
+        int labels = DomainUtils.countLabels(rule.getPattern());
+        return rule.isExceptionRule() ? labels - 1 : labels;
     }
 }
\ No newline at end of file
@@ -24,8 +24,10 @@
 
 package com.github.alturkovic.domain;
 
+import com.github.alturkovic.domain.registry.RuleIndexType;
 import com.github.alturkovic.domain.registry.RuleRegistry;
 import com.github.alturkovic.domain.registry.RuleRegistryFactory;
+import com.github.alturkovic.domain.registry.RuleRegistrySnapshot;
 import com.github.alturkovic.domain.rule.Rule;
 import com.github.alturkovic.domain.rule.RuleParser;
 
@@ -33,9 +35,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Used to build {@link DomainRegistry} instances.
@@ -44,6 +49,17 @@ public class DomainRegistryBuilder {
     private final static String DEFAULT_RULES = "https://publicsuffix.org/list/effective_tld_names.dat";
 
     private final List<Rule> rules = new ArrayList<>();
+    private RuleIndexType indexType = RuleIndexType.NODE_TRIE;
+    private RuleParser ruleParser = new RuleParser();
+    private RuleRegistry snapshot;
+    private ForkJoinPool batchPool = ForkJoinPool.commonPool();
+    private int batchThreshold = BatchParser.DEFAULT_THRESHOLD;
+    private int cacheSize;
+    private int threadCacheSlots;
+    private DomainRegistryListener listener;
+    private int latencySamplingInterval = LookupRecorder.DEFAULT_SAMPLING_INTERVAL;
+    private long loadNanos;
+    private boolean ruleProfiling;
 
     /**
      * Add default rules as defined <a href="https://publicsuffix.org/list/effective_tld_names.dat">here</a>.
@@ -58,6 +74,21 @@ public class DomainRegistryBuilder {
         }
     }
 
+    /**
+     * Add the Public Suffix List bundled with this library, see {@link BundledRules}.
+     * <p>
+     * The rules are read from a prebuilt snapshot, without network access or parsing.
+     *
+     * @return this builder
+     */
+    public DomainRegistryBuilder withBundledRules() {
+        try (InputStream snapshot = BundledRules.openSnapshot()) {
+            return fromSnapshot(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Add rules from {@code fileName} to this builder.
      *
@@ -75,10 +106,78 @@ public class DomainRegistryBuilder {
      * @return this builder
      */
     public DomainRegistryBuilder from(InputStream inputStream) {
-        List<Rule> rules = new RuleParser().parse(inputStream);
+        long start = System.nanoTime();
+        List<Rule> rules = ruleParser.parse(inputStream);
+        loadNanos += System.nanoTime() - start;
         return withRules(rules);
     }
 
+    /**
+     * Add rules from the file at {@code path} to this builder, parsing large files in parallel chunks.
+     *
+     * @param path of the file to read rules from
+     * @return this builder
+     */
+    public DomainRegistryBuilder from(Path path) {
+        long start = System.nanoTime();
+        List<Rule> rules = ruleParser.parse(path);
+        loadNanos += System.nanoTime() - start;
+        return withRules(rules);
+    }
+
+    /**
+     * Use {@code ruleParser} to read rule lists added after this call.
+     * <p>
+     * Defaults to a parser that logs and skips invalid lines, use {@link RuleParser#strict()} to fail the load instead.
+     *
+     * @param ruleParser to read rule lists with
+     * @return this builder
+     */
+    public DomainRegistryBuilder withRuleParser(RuleParser ruleParser) {
+        this.ruleParser = ruleParser;
+        return this;
+    }
+
+    /**
+     * Add rules from a snapshot written by {@link RuleRegistrySnapshot} to this builder.
+     * <p>
+     * If no other rules are added, the snapshot is used as is, without rebuilding it in the configured layout.
+     *
+     * @param inputStream to read the snapshot from
+     * @return this builder
+     */
+    public DomainRegistryBuilder fromSnapshot(InputStream inputStream) {
+        try {
+            long start = System.nanoTime();
+            RuleRegistry loaded = new RuleRegistrySnapshot().read(inputStream);
+            loadNanos += System.nanoTime() - start;
+            return withSnapshot(loaded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Add rules from a snapshot written by {@link RuleRegistrySnapshot} to this builder,
+     * serving lookups directly from the memory-mapped {@code path} instead of the heap.
+     * <p>
+     * If no other rules are added, the mapped snapshot is used as is, otherwise all rules are rebuilt on the heap.
+     * The file must not be modified while it is mapped, replace it atomically instead.
+     *
+     * @param path of the snapshot
+     * @return this builder
+     */
+    public DomainRegistryBuilder fromMappedSnapshot(Path path) {
+        try {
+            long start = System.nanoTime();
+            RuleRegistry loaded = new RuleRegistrySnapshot().map(path);
+            loadNanos += System.nanoTime() - start;
+            return withSnapshot(loaded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Add {@code rule} to this builder.
      *
@@ -110,16 +209,174 @@ public class DomainRegistryBuilder {
         return this;
     }
 
+    /**
+     * Use the {@code indexType} memory layout for the rules.
+     * <p>
+     * Defaults to {@link RuleIndexType#NODE_TRIE}.
+     *
+     * @param indexType layout to use
+     * @return this builder
+     */
+    public DomainRegistryBuilder withIndexType(RuleIndexType indexType) {
+        this.indexType = indexType;
+        return this;
+    }
+
+    /**
+     * Parse batches in {@code batchPool}.
+     * <p>
+     * Defaults to {@link ForkJoinPool#commonPool()}.
+     *
+     * @param batchPool to parse batches in
+     * @return this builder
+     * @see DomainRegistry#parseAll(String[])
+     */
+    public DomainRegistryBuilder withBatchPool(ForkJoinPool batchPool) {
+        this.batchPool = batchPool;
+        return this;
+    }
+
+    /**
+     * Split batches into parts of at most {@code batchThreshold} domains that are parsed in parallel.
+     * <p>
+     * Batches up to this size are parsed in the calling thread. Defaults to 1024.
+     *
+     * @param batchThreshold maximum number of domains parsed by a single task
+     * @return this builder
+     * @see DomainRegistry#parseAll(String[])
+     */
+    public DomainRegistryBuilder withBatchThreshold(int batchThreshold) {
+        if (batchThreshold < 1) {
+            throw new IllegalArgumentException("Batch threshold must be positive: " + batchThreshold);
+        }
+        this.batchThreshold = batchThreshold;
+        return this;
+    }
+
+    /**
+     * Cache up to {@code maximumSize} parse results, keyed by the domain as given.
+     * <p>
+     * Domains that are looked up frequently are kept over domains that were only looked up recently,
+     * which suits skewed traffic. Disabled by default.
+     *
+     * @param maximumSize maximum number of cached results
+     * @return this builder
+     * @see DomainRegistry#getCacheStats()
+     */
+    public DomainRegistryBuilder withCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        this.cacheSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Cache the last parse results of each thread in {@code slots} direct-mapped slots.
+     * <p>
+     * The per-thread cache is checked without synchronization before the shared cache configured with
+     * {@link #withCache(int)}, if any. The number of slots is rounded up to a power of two, at most 65536.
+     * Disabled by default.
+     *
+     * @param slots number of results cached per thread
+     * @return this builder
+     */
+    public DomainRegistryBuilder withThreadLocalCache(int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Thread local cache slots must be positive: " + slots);
+        }
+        this.threadCacheSlots = slots;
+        return this;
+    }
+
+    /**
+     * Report lookups and the build to {@code listener}.
+     * <p>
+     * Without a listener, lookups are not instrumented at all. Disabled by default.
+     *
+     * @param listener to report to
+     * @return this builder
+     * @see DomainRegistryMetrics
+     */
+    public DomainRegistryBuilder withListener(DomainRegistryListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Time one in {@code interval} lookups on average for {@link DomainRegistryListener#onLookupLatency(long)}.
+     * <p>
+     * The interval is rounded up to a power of two, {@code 1} times every lookup. Defaults to 128.
+     *
+     * @param interval average number of lookups per timed lookup
+     * @return this builder
+     */
+    public DomainRegistryBuilder withLatencySampling(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Latency sampling interval must be positive: " + interval);
+        }
+        this.latencySamplingInterval = interval;
+        return this;
+    }
+
+    /**
+     * Count how often each rule prevails, see {@link DomainRegistry#getRuleProfiler()}.
+     * <p>
+     * Lookups served from a cache are not counted. Domains rejected for an unknown top level label
+     * are counted as unmatched lookups. Disabled by default.
+     *
+     * @return this builder
+     */
+    public DomainRegistryBuilder withRuleProfiling() {
+        this.ruleProfiling = true;
+        return this;
+    }
+
     /**
      * Build a {@link DomainRegistry} using the registered rules from this builder.
      *
      * @return initialized registry
      */
     public DomainRegistry build() {
-        RuleRegistry ruleRegistry = new RuleRegistryFactory().build(rules);
-        if (ruleRegistry.getRules().isEmpty()) {
+        long start = System.nanoTime();
+        RuleRegistry ruleRegistry = buildRuleRegistry();
+        if (ruleRegistry.getRuleCount() == 0) {
             throw new IllegalArgumentException("No rules registered");
         }
-        return new DomainRegistry(ruleRegistry);
+        if (ruleProfiling) {
+            ruleRegistry = ruleRegistry.withProfiling();
+        }
+        ParseCache cache = cacheSize > 0 ? new ParseCache(cacheSize) : null;
+        ThreadLocalParseCache threadCache = threadCacheSlots > 0 ? new ThreadLocalParseCache(threadCacheSlots) : null;
+        LookupRecorder recorder = listener != null ? new LookupRecorder(listener, latencySamplingInterval) : null;
+        DomainRegistry registry = new DomainRegistry(ruleRegistry, new BatchParser(batchPool, batchThreshold), cache, threadCache, recorder);
+
+        if (listener != null) {
+            listener.onBuild(ruleRegistry.getRuleCount(), Duration.ofNanos(loadNanos), Duration.ofNanos(System.nanoTime() - start));
+        }
+        return registry;
+    }
+
+    private DomainRegistryBuilder withSnapshot(RuleRegistry loaded) {
+        if (snapshot != null) {
+            withRules(snapshot.getRules());
+        }
+
+        snapshot = loaded;
+        return this;
+    }
+
+    private RuleRegistry buildRuleRegistry() {
+        if (snapshot == null) {
+            return new RuleRegistryFactory().build(rules, indexType);
+        }
+
+        if (rules.isEmpty()) {
+            return snapshot;
+        }
+
+        List<Rule> allRules = new ArrayList<>(snapshot.getRules());
+        allRules.addAll(rules);
+        return new RuleRegistryFactory().build(allRules, indexType);
     }
 }
\ No newline at end of file
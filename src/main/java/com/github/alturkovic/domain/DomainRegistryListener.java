@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import java.time.Duration;
+
+/**
+ * Receives metrics of a {@link DomainRegistry}, register it with {@link DomainRegistryBuilder#withListener(DomainRegistryListener)}.
+ * <p>
+ * Lookup callbacks are invoked in the thread doing the lookup, on every lookup, so implementations
+ * must be thread-safe and fast. All callbacks do nothing by default.
+ *
+ * @see DomainRegistryMetrics
+ */
+public interface DomainRegistryListener {
+
+    /**
+     * Called after every lookup, including lookups served from a cache.
+     *
+     * @param matched {@code true} if the domain is under a public suffix
+     * @param internationalized {@code true} if the domain has a Unicode or Punycode label
+     */
+    default void onLookup(boolean matched, boolean internationalized) {
+    }
+
+    /**
+     * Called with the duration of sampled lookups.
+     *
+     * @param nanos lookup duration in nanoseconds
+     * @see DomainRegistryBuilder#withLatencySampling(int)
+     */
+    default void onLookupLatency(long nanos) {
+    }
+
+    /**
+     * Called once when the registry is built.
+     *
+     * @param ruleCount number of registered rules
+     * @param loadDuration time spent parsing rule lists and reading snapshots
+     * @param buildDuration time spent building the registry from the loaded rules
+     */
+    default void onBuild(int ruleCount, Duration loadDuration, Duration buildDuration) {
+    }
+}
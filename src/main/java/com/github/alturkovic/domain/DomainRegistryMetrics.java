@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DomainRegistryListener} that aggregates metrics in memory, for polling by a metrics system.
+ * <p>
+ * Lookup latencies are counted in a histogram with power of two buckets.
+ */
+public class DomainRegistryMetrics implements DomainRegistryListener {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder internationalized = new LongAdder();
+    private final LongAdder[] latencies = new LongAdder[BUCKETS];
+    private volatile int ruleCount;
+    private volatile Duration loadDuration = Duration.ZERO;
+    private volatile Duration buildDuration = Duration.ZERO;
+
+    /**
+     * Create metrics with all counts at zero, register them with {@link DomainRegistryBuilder#withListener(DomainRegistryListener)}.
+     */
+    public DomainRegistryMetrics() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            latencies[bucket] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onLookup(boolean matched, boolean internationalized) {
+        lookups.increment();
+        if (matched) {
+            this.matched.increment();
+        }
+        if (internationalized) {
+            this.internationalized.increment();
+        }
+    }
+
+    @Override
+    public void onLookupLatency(long nanos) {
+        latencies[bucketOf(nanos)].increment();
+    }
+
+    @Override
+    public void onBuild(int ruleCount, Duration loadDuration, Duration buildDuration) {
+        this.ruleCount = ruleCount;
+        this.loadDuration = loadDuration;
+        this.buildDuration = buildDuration;
+    }
+
+    /**
+     * Get the number of lookups.
+     *
+     * @return number of lookups
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Get the number of lookups that found a public suffix.
+     *
+     * @return number of lookups of domains under a public suffix
+     */
+    public long getMatchedCount() {
+        return matched.sum();
+    }
+
+    /**
+     * Get the number of lookups that found no public suffix.
+     *
+     * @return number of lookups of domains not under any public suffix
+     */
+    public long getUnmatchedCount() {
+        return getLookupCount() - getMatchedCount();
+    }
+
+    /**
+     * Get the number of lookups of internationalized domains.
+     *
+     * @return number of lookups of domains with a Unicode or Punycode label
+     */
+    public long getInternationalizedCount() {
+        return internationalized.sum();
+    }
+
+    /**
+     * Histogram of sampled lookup latencies.
+     * <p>
+     * Bucket {@code 0} counts latencies below 2ns, bucket {@code i} counts latencies in {@code [2^i, 2^(i+1))} nanoseconds.
+     *
+     * @return sampled lookup counts per bucket
+     */
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            histogram[bucket] = latencies[bucket].sum();
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Get the number of rules of the last built registry.
+     *
+     * @return rule count of the last built registry
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Get how long loading the rules of the last built registry took.
+     *
+     * @return time spent loading rules for the last built registry
+     */
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+
+    /**
+     * Get how long building the last built registry took.
+     *
+     * @return time spent building the last built registry
+     */
+    public Duration getBuildDuration() {
+        return buildDuration;
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+}
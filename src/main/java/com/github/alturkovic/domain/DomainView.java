@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.StringUtils;
+
+/**
+ * Reusable, mutable view of the parts of a domain, filled by {@link DomainRegistry#parse(CharSequence, DomainView)}.
+ * <p>
+ * Only label offsets into the original domain are stored. Parts are exposed as {@link Slice} flyweights owned
+ * by the view, which can be hashed and compared without copying, so a loop reusing one view per thread creates
+ * no garbage. Slices reflect the latest parsed domain, call {@link Slice#toString()} to keep a part.
+ * <p>
+ * Instances are not thread safe.
+ */
+public final class DomainView {
+    private static final int NONE = -1;
+
+    private final Slice publicSuffix = new Slice();
+    private final Slice registrableName = new Slice();
+    private final Slice registrableDomain = new Slice();
+    private final Slice subDomain = new Slice();
+
+    private CharSequence domain = "";
+    private int end = NONE;
+    private int publicSuffixStart = NONE;
+    private int registrableNameStart = NONE;
+
+    void set(CharSequence domain, int publicSuffixLabels) {
+        this.domain = domain;
+        this.publicSuffixStart = DomainUtils.suffixStart(domain, publicSuffixLabels);
+        this.end = publicSuffixStart == NONE ? NONE : DomainUtils.lastLabelEnd(domain);
+        this.registrableNameStart = publicSuffixStart <= 0 ? NONE : DomainUtils.labelStart(domain, publicSuffixStart - 1);
+
+        publicSuffix.set(publicSuffixStart, end);
+        registrableName.set(registrableNameStart, publicSuffixStart - 1);
+        registrableDomain.set(registrableNameStart, end);
+        subDomain.set(registrableNameStart > 0 ? 0 : NONE, registrableNameStart - 1);
+        if (StringUtils.isBlank(subDomain)) {
+            subDomain.set(NONE, NONE);
+        }
+    }
+
+    /**
+     * Returns the parsed domain.
+     *
+     * @return original domain
+     */
+    public CharSequence getDomain() {
+        return domain;
+    }
+
+    /**
+     * Returns if the domain is under a public suffix.
+     *
+     * @return {@code true} if there is a public suffix
+     */
+    public boolean hasPublicSuffix() {
+        return publicSuffixStart != NONE;
+    }
+
+    /**
+     * Returns if the domain has a registrable name.
+     *
+     * @return {@code true} if there is a registrable name
+     */
+    public boolean hasRegistrableName() {
+        return registrableNameStart != NONE;
+    }
+
+    /**
+     * Returns if the domain has a non-blank subdomain.
+     *
+     * @return {@code true} if there is a subdomain
+     */
+    public boolean hasSubDomain() {
+        return subDomain.length() > 0;
+    }
+
+    /**
+     * Returns the public suffix, without trailing dots.
+     *
+     * @return public suffix, empty if there is none
+     * @see DomainParts#getPublicSuffix()
+     */
+    public Slice publicSuffix() {
+        return publicSuffix;
+    }
+
+    /**
+     * Returns the registrable domain name.
+     *
+     * @return registrable name, empty if there is none
+     * @see DomainParts#getRegistrableName()
+     */
+    public Slice registrableName() {
+        return registrableName;
+    }
+
+    /**
+     * Returns the registrable name together with the public suffix, without trailing dots.
+     * <p>
+     * Two hosts are on the same site if their registrable domains are equal. Unlike {@link DomainParts#getRegistrableDomain()},
+     * which keeps the rest of the domain as is, trailing dots are not included, so {@code example.com.} and {@code example.com}
+     * are on the same site.
+     *
+     * @return registrable domain, empty if there is none
+     * @see DomainParts#getRegistrableDomain()
+     */
+    public Slice registrableDomain() {
+        return registrableDomain;
+    }
+
+    /**
+     * Returns the subdomain.
+     *
+     * @return subdomain, empty if there is none
+     * @see DomainParts#getSubDomain()
+     */
+    public Slice subDomain() {
+        return subDomain;
+    }
+
+    /**
+     * Returns if both views have the same registrable domain, ignoring case.
+     *
+     * @param other view to compare to
+     * @return {@code true} if both domains are on the same site
+     */
+    public boolean isSameSite(DomainView other) {
+        return hasRegistrableName() && other.hasRegistrableName() && registrableDomain.equals(other.registrableDomain);
+    }
+
+    @Override
+    public String toString() {
+        return domain.toString();
+    }
+
+    /**
+     * Part of the domain of a {@link DomainView}, between two offsets.
+     * <p>
+     * Hash codes and equality ignore case and only depend on the chars of the slice.
+     * Slices change when their view is refilled, so they must not be used as map keys.
+     */
+    public final class Slice implements CharSequence {
+        private int start;
+        private int end;
+
+        private Slice() {
+        }
+
+        private void set(int start, int end) {
+            if (start == NONE || end < start) {
+                this.start = 0;
+                this.end = 0;
+            } else {
+                this.start = start;
+                this.end = end;
+            }
+        }
+
+        /**
+         * Returns the start of this slice in the domain.
+         *
+         * @return inclusive start index
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the end of this slice in the domain.
+         *
+         * @return exclusive end index
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+            }
+
+            return domain.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+            }
+
+            return domain.subSequence(this.start + start, this.start + end);
+        }
+
+        /**
+         * Compare the chars of this slice to {@code other}, ignoring case.
+         *
+         * @param other to compare to
+         * @return {@code true} if both contain the same chars
+         */
+        public boolean contentEquals(CharSequence other) {
+            if (other == null || other.length() != length()) {
+                return false;
+            }
+
+            for (int i = 0; i < length(); i++) {
+                if (DomainUtils.toLowerCase(charAt(i)) != DomainUtils.toLowerCase(other.charAt(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Slice && contentEquals((Slice) other);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + DomainUtils.toLowerCase(domain.charAt(i));
+            }
+
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return domain.subSequence(start, end).toString();
+        }
+    }
+}
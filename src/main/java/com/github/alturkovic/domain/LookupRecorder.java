@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.util.DomainUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reports lookups to a {@link DomainRegistryListener}, timing one in {@code samplingInterval} lookups on average.
+ */
+class LookupRecorder {
+    static final int DEFAULT_SAMPLING_INTERVAL = 128;
+
+    private final DomainRegistryListener listener;
+    private final int samplingMask;
+
+    LookupRecorder(DomainRegistryListener listener, int samplingInterval) {
+        this.listener = listener;
+        this.samplingMask = samplingInterval <= 1 ? 0 : Integer.highestOneBit(samplingInterval - 1) * 2 - 1;
+    }
+
+    /**
+     * Start timing a lookup if it is sampled.
+     *
+     * @return start time of a sampled lookup, {@code 0} if the lookup is not sampled
+     */
+    long start() {
+        if ((ThreadLocalRandom.current().nextInt() & samplingMask) != 0) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        return start == 0 ? 1 : start;
+    }
+
+    void record(CharSequence domain, boolean matched, long start) {
+        if (start != 0) {
+            listener.onLookupLatency(System.nanoTime() - start);
+        }
+
+        listener.onLookup(matched, DomainUtils.isInternationalized(domain));
+    }
+}
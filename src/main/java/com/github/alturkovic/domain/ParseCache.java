@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of parse results using the W-TinyLFU policy.
+ * <p>
+ * Keys are spread over independently locked segments. Each segment admits new entries into a small LRU window,
+ * entries leaving the window compete with the least recently used entry of the main space, a segmented LRU
+ * split into probation and protected queues. The entry that was accessed more often, as estimated by a
+ * count-min sketch of recent accesses, stays in the cache.
+ * <p>
+ * Domains are parsed outside of the segment lock, so concurrent misses for the same domain may parse it twice.
+ */
+class ParseCache {
+    private static final int MIN_SEGMENT_SIZE = 64;
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ParseCache(int maximumSize) {
+        int segmentCount = segmentCount(maximumSize);
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    DomainParts get(String domain, Function<String, DomainParts> parser) {
+        int hash = spread(domain.hashCode());
+        Segment segment = segments[(hash >>> 16) & segmentMask];
+
+        DomainParts parts = segment.get(domain, hash);
+        if (parts != null) {
+            hits.increment();
+            return parts;
+        }
+
+        misses.increment();
+        parts = parser.apply(domain);
+        if (segment.put(domain, hash, parts)) {
+            evictions.increment();
+        }
+
+        return parts;
+    }
+
+    CacheStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private static int segmentCount(int maximumSize) {
+        int segmentCount = 1;
+        int limit = Math.min(MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 4);
+        while (segmentCount * 2 <= limit && maximumSize / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+
+        return segmentCount;
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 15);
+    }
+
+    private static final class Segment {
+        private static final int WINDOW = 0;
+        private static final int PROBATION = 1;
+        private static final int PROTECTED = 2;
+
+        private final Map<String, Entry> entries;
+        private final FrequencySketch sketch;
+        private final Queue window = new Queue();
+        private final Queue probation = new Queue();
+        private final Queue protectedQueue = new Queue();
+        private final int maximumWindowSize;
+        private final int maximumMainSize;
+        private final int maximumProtectedSize;
+
+        private Segment(int maximumSize) {
+            this.entries = new HashMap<>();
+            this.sketch = new FrequencySketch(maximumSize);
+            this.maximumWindowSize = Math.max(1, maximumSize / 100);
+            this.maximumMainSize = maximumSize - maximumWindowSize;
+            this.maximumProtectedSize = maximumMainSize * 4 / 5;
+        }
+
+        synchronized DomainParts get(String domain, int hash) {
+            sketch.increment(hash);
+
+            Entry entry = entries.get(domain);
+            if (entry == null) {
+                return null;
+            }
+
+            onHit(entry);
+            return entry.parts;
+        }
+
+        /**
+         * Admit an entry into the window, evicting an entry if the segment is full.
+         *
+         * @return {@code true} if an entry was evicted
+         */
+        synchronized boolean put(String domain, int hash, DomainParts parts) {
+            if (entries.containsKey(domain)) {
+                return false;
+            }
+
+            Entry entry = new Entry(domain, hash, parts);
+            entries.put(domain, entry);
+            window.addLast(entry, WINDOW);
+            if (window.size <= maximumWindowSize) {
+                return false;
+            }
+
+            Entry candidate = window.removeFirst();
+            if (probation.size + protectedQueue.size < maximumMainSize) {
+                probation.addLast(candidate, PROBATION);
+                return false;
+            }
+
+            Entry victim = probation.size > 0 ? probation.first() : protectedQueue.first();
+            if (victim != null && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                queueOf(victim).remove(victim);
+                entries.remove(victim.domain);
+                probation.addLast(candidate, PROBATION);
+            } else {
+                entries.remove(candidate.domain);
+            }
+
+            return true;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void onHit(Entry entry) {
+            if (entry.queue == PROBATION) {
+                probation.remove(entry);
+                protectedQueue.addLast(entry, PROTECTED);
+                if (protectedQueue.size > maximumProtectedSize) {
+                    probation.addLast(protectedQueue.removeFirst(), PROBATION);
+                }
+            } else {
+                Queue queue = queueOf(entry);
+                queue.remove(entry);
+                queue.addLast(entry, entry.queue);
+            }
+        }
+
+        private Queue queueOf(Entry entry) {
+            switch (entry.queue) {
+                case WINDOW:
+                    return window;
+                case PROBATION:
+                    return probation;
+                default:
+                    return protectedQueue;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String domain;
+        private final int hash;
+        private final DomainParts parts;
+        private int queue;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(String domain, int hash, DomainParts parts) {
+            this.domain = domain;
+            this.hash = hash;
+            this.parts = parts;
+        }
+    }
+
+    /**
+     * Doubly linked LRU queue, the least recently used entry is first.
+     */
+    private static final class Queue {
+        private final Entry head = new Entry(null, 0, null);
+        private int size;
+
+        private Queue() {
+            head.previous = head;
+            head.next = head;
+        }
+
+        Entry first() {
+            return size == 0 ? null : head.next;
+        }
+
+        Entry removeFirst() {
+            Entry first = head.next;
+            remove(first);
+            return first;
+        }
+
+        void addLast(Entry entry, int queue) {
+            entry.queue = queue;
+            entry.previous = head.previous;
+            entry.next = head;
+            head.previous.next = entry;
+            head.previous = entry;
+            size++;
+        }
+
+        void remove(Entry entry) {
+            entry.previous.next = entry.next;
+            entry.next.previous = entry.previous;
+            entry.previous = null;
+            entry.next = null;
+            size--;
+        }
+    }
+
+    /**
+     * Count-min sketch with four rows of saturating 4-bit counters.
+     * <p>
+     * All counters are halved after {@code 10 * maximumSize} increments, so the frequencies favor recent accesses.
+     */
+    private static final class FrequencySketch {
+        private static final int ROWS = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97CB3127, 0xC2B2AE35, 0x85EBCA6B, 0x27D4EB2F};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.min(Math.max(16, maximumSize), 1 << 28) - 1) << 1;
+            this.counters = new byte[ROWS][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(1, maximumSize);
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < ROWS; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < ROWS; row++) {
+                frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+            }
+
+            return frequency;
+        }
+
+        private int indexOf(int hash, int row) {
+            int index = hash * SEEDS[row];
+            return (index ^ (index >>> 16)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import lombok.AllArgsConstructor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Handle to a {@link DomainRegistry} that can be replaced while it is in use.
+ * <p>
+ * A new registry is fully built by the loader before it is published, lookups always use a complete registry
+ * and never wait for a reload. Reloads are done one at a time, either on demand with {@link #reload()},
+ * periodically with {@link #reloadEvery(Duration)} or when a watched file changes.
+ * <p>
+ * A failed background reload keeps the current registry, see {@link #getLastReloadFailure()}.
+ */
+public class ReloadableDomainRegistry implements Closeable {
+    private final Supplier<DomainRegistry> loader;
+    private final Object reloadLock = new Object();
+    private volatile Loaded loaded;
+    private volatile RuntimeException lastReloadFailure;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Load the initial registry from {@code loader} in the calling thread.
+     *
+     * @param loader builds a new registry on every call
+     * @throws RuntimeException if the initial load fails
+     */
+    public ReloadableDomainRegistry(Supplier<DomainRegistry> loader) {
+        this.loader = loader;
+        reload();
+    }
+
+    /**
+     * Load rules from {@code rulesFile} and reload them whenever the file changes.
+     * <p>
+     * Changes are detected by polling the modification time and size of the file every {@code pollInterval}.
+     * Replace the file atomically, so a reload never reads a partially written file.
+     *
+     * @param rulesFile Public Suffix List file to load
+     * @param pollInterval time between checks for changes
+     * @return reloadable registry, close it to stop watching
+     */
+    public static ReloadableDomainRegistry watching(Path rulesFile, Duration pollInterval) {
+        return watching(rulesFile, ReloadableDomainRegistry::loadRules, pollInterval);
+    }
+
+    /**
+     * Load a registry from {@code file} with {@code loader} and reload it whenever the file changes.
+     * <p>
+     * Use this to watch snapshots, e.g. with {@link DomainRegistryBuilder#fromMappedSnapshot(Path)},
+     * or to configure the built registries.
+     *
+     * @param file to watch
+     * @param loader builds a new registry from the file
+     * @param pollInterval time between checks for changes
+     * @return reloadable registry, close it to stop watching
+     * @see #watching(Path, Duration)
+     */
+    public static ReloadableDomainRegistry watching(Path file, Function<Path, DomainRegistry> loader, Duration pollInterval) {
+        FileWatcher watcher = new FileWatcher(file, loader);
+        ReloadableDomainRegistry registry = new ReloadableDomainRegistry(watcher);
+        registry.schedule(() -> {
+            if (watcher.hasChanged()) {
+                registry.reload();
+            }
+        }, pollInterval);
+        return registry;
+    }
+
+    /**
+     * Get the current registry.
+     * <p>
+     * Keep the returned registry only as long as needed, a later call may return a newer one.
+     *
+     * @return current registry
+     */
+    public DomainRegistry get() {
+        return loaded.registry;
+    }
+
+    /**
+     * Parse {@code domain} with the current registry, see {@link DomainRegistry#parse(String)}.
+     *
+     * @param domain to parse
+     * @return parts of the domain
+     */
+    public DomainParts parse(String domain) {
+        return get().parse(domain);
+    }
+
+    /**
+     * Build and publish a new registry in the calling thread.
+     * <p>
+     * Waits for a reload in progress to finish first.
+     *
+     * @throws RuntimeException if the loader fails, the current registry is kept
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            DomainRegistry registry = Objects.requireNonNull(loader.get(), "Loader returned no registry");
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+            long version = loaded == null ? 1 : loaded.version + 1;
+            loaded = new Loaded(registry, version, Instant.now(), duration);
+            lastReloadFailure = null;
+        }
+    }
+
+    /**
+     * Reload in the background every {@code interval}, in addition to any file watching.
+     *
+     * @param interval time between reloads
+     * @return this registry
+     */
+    public ReloadableDomainRegistry reloadEvery(Duration interval) {
+        schedule(this::reload, interval);
+        return this;
+    }
+
+    /**
+     * Version of the current registry, incremented by every successful reload.
+     *
+     * @return current version, starting with {@code 1}
+     */
+    public long getVersion() {
+        return loaded.version;
+    }
+
+    /**
+     * Time at which the current registry was published.
+     *
+     * @return last successful reload time
+     */
+    public Instant getLastReloadTime() {
+        return loaded.time;
+    }
+
+    /**
+     * Time it took to build the current registry.
+     *
+     * @return last successful reload duration
+     */
+    public Duration getLastReloadDuration() {
+        return loaded.duration;
+    }
+
+    /**
+     * Failure of the last background reload.
+     *
+     * @return failure, empty if the last reload succeeded
+     */
+    public Optional<RuntimeException> getLastReloadFailure() {
+        return Optional.ofNullable(lastReloadFailure);
+    }
+
+    /**
+     * Stop background reloads, the current registry stays usable.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    private synchronized void schedule(Runnable reload, Duration interval) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "domain-registry-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        long nanos = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reload.run();
+            } catch (RuntimeException e) {
+                lastReloadFailure = e;
+            }
+        }, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static DomainRegistry loadRules(Path rulesFile) {
+        try (InputStream rules = Files.newInputStream(rulesFile)) {
+            return new DomainRegistryBuilder().from(rules).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Loaded {
+        private final DomainRegistry registry;
+        private final long version;
+        private final Instant time;
+        private final Duration duration;
+    }
+
+    /**
+     * Loads from a file and remembers the modification time and size of the loaded file.
+     */
+    private static final class FileWatcher implements Supplier<DomainRegistry> {
+        private final Path file;
+        private final Function<Path, DomainRegistry> loader;
+        private volatile String loadedVersion;
+
+        private FileWatcher(Path file, Function<Path, DomainRegistry> loader) {
+            this.file = file;
+            this.loader = loader;
+        }
+
+        @Override
+        public DomainRegistry get() {
+            String version = fileVersion();
+            DomainRegistry registry = loader.apply(file);
+            loadedVersion = version;
+            return registry;
+        }
+
+        boolean hasChanged() {
+            return !fileVersion().equals(loadedVersion);
+        }
+
+        private String fileVersion() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return attributes.lastModifiedTime() + "/" + attributes.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Small direct-mapped cache of parse results per thread.
+ * <p>
+ * Each thread has a fixed number of slots, a domain can only be stored in the slot selected by its hash
+ * and replaces whatever was stored there. Slots are read and written without synchronization.
+ * <p>
+ * All caches share one thread local that holds the slots of the cache the thread used last, tagged with the
+ * generation of that cache. Using another cache replaces the slots, so a pooled thread retains at most one
+ * slot array no matter how many registries are discarded, e.g. on every reload of a {@link ReloadableDomainRegistry}.
+ * A thread alternating between caches refills its slots on every switch.
+ */
+class ThreadLocalParseCache {
+    private static final int MAX_SLOTS = 1 << 16;
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+    private static final ThreadLocal<Slots> SLOTS = new ThreadLocal<>();
+
+    private final long generation = GENERATIONS.incrementAndGet();
+    private final int size;
+
+    ThreadLocalParseCache(int slotCount) {
+        this.size = slotCount <= 1 ? 1 : Integer.highestOneBit(Math.min(slotCount, MAX_SLOTS) - 1) << 1;
+    }
+
+    DomainParts get(String domain, Function<String, DomainParts> parser) {
+        DomainParts[] threadSlots = threadSlots();
+        int slot = spread(domain.hashCode()) & (size - 1);
+
+        DomainParts parts = threadSlots[slot];
+        if (parts == null || !parts.getDomain().equals(domain)) {
+            parts = parser.apply(domain);
+            threadSlots[slot] = parts;
+        }
+
+        return parts;
+    }
+
+    private DomainParts[] threadSlots() {
+        Slots slots = SLOTS.get();
+        if (slots == null || slots.generation != generation) {
+            slots = new Slots(generation, new DomainParts[size]);
+            SLOTS.set(slots);
+        }
+
+        return slots.parts;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @AllArgsConstructor
+    private static final class Slots {
+        private final long generation;
+        private final DomainParts[] parts;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.Punycode;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bloom filter over the top level labels of a rule registry.
+ * <p>
+ * Each label is added in its Unicode and Punycode form, so domains can be checked before they are decoded.
+ * Labels are hashed with folded chars straight from the domain, so a check allocates nothing.
+ * A rejected domain has no public suffix, an accepted one still has to be looked up.
+ */
+final class TldFilter {
+    private static final int BITS_PER_LABEL = 16;
+    private static final TldFilter ACCEPT_ALL = new TldFilter(null);
+
+    private final long[] bits;
+
+    private TldFilter(long[] bits) {
+        this.bits = bits;
+    }
+
+    static TldFilter of(Collection<String> topLevelLabels) {
+        if (topLevelLabels.contains(Rule.WILDCARD)) {
+            return ACCEPT_ALL;
+        }
+
+        Set<String> labels = new HashSet<>();
+        for (String label : topLevelLabels) {
+            labels.add(DomainUtils.toLowerCase(label));
+            labels.add(DomainUtils.toLowerCase(toAscii(label)));
+            labels.add(DomainUtils.toLowerCase(Punycode.toUnicode(label)));
+        }
+
+        int bitCount = Integer.highestOneBit(Math.max(64, labels.size() * BITS_PER_LABEL) - 1) << 1;
+        TldFilter filter = new TldFilter(new long[bitCount / 64]);
+        for (String label : labels) {
+            filter.add(hash(label, 0, label.length()));
+        }
+
+        return filter;
+    }
+
+    /**
+     * Check if the top level label of {@code domain} might be registered.
+     *
+     * @param domain to check
+     * @return {@code false} if the domain is certainly not under a public suffix
+     */
+    boolean mightContain(CharSequence domain) {
+        if (bits == null) {
+            return true;
+        }
+
+        if (domain == null) {
+            return false;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end == 0) {
+            return false;
+        }
+
+        int hash = hash(domain, DomainUtils.labelStart(domain, end), end);
+        return isSet(hash) && isSet(rehash(hash));
+    }
+
+    private void add(int hash) {
+        set(hash);
+        set(rehash(hash));
+    }
+
+    private void set(int hash) {
+        int bit = hash & (bits.length * 64 - 1);
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean isSet(int hash) {
+        int bit = hash & (bits.length * 64 - 1);
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static String toAscii(String label) {
+        try {
+            return Punycode.toAscii(label);
+        } catch (IllegalArgumentException e) {
+            return label;
+        }
+    }
+
+    private static int hash(CharSequence domain, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + DomainUtils.toLowerCase(domain.charAt(i));
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int rehash(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 15);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * {@link PackedRuleIndex} stored in heap arrays.
+ */
+@Getter(AccessLevel.PACKAGE)
+class ArrayRuleIndex extends PackedRuleIndex {
+    private final char[] labelChars;
+    private final int[] labelOffsets;
+    private final int[] labelIds;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final byte[] flags;
+
+    ArrayRuleIndex(char[] labelChars, int[] labelOffsets, int[] labelIds, int[] parents, int[] childOffsets, byte[] flags) {
+        this(labelChars, labelOffsets, labelIds, parents, childOffsets, flags, new Rule[flags.length]);
+    }
+
+    private ArrayRuleIndex(char[] labelChars, int[] labelOffsets, int[] labelIds, int[] parents, int[] childOffsets, byte[] flags, Rule[] rules) {
+        super(rules);
+        this.labelChars = labelChars;
+        this.labelOffsets = labelOffsets;
+        this.labelIds = labelIds;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.flags = flags;
+    }
+
+    static ArrayRuleIndex from(MutableNode root) {
+        int nodeCount = countNodes(root);
+        int[] labelIds = new int[nodeCount];
+        int[] parents = new int[nodeCount];
+        int[] childOffsets = new int[nodeCount + 1];
+        byte[] flags = new byte[nodeCount];
+        Rule[] rules = new Rule[nodeCount];
+
+        Map<String, Integer> labelIdsByLabel = new LinkedHashMap<>();
+        List<MutableNode> nodes = new ArrayList<>(nodeCount);
+        nodes.add(root);
+        labelIds[ROOT] = NO_LABEL;
+        parents[ROOT] = NO_NODE;
+
+        for (int node = 0; node < nodeCount; node++) {
+            MutableNode current = nodes.get(node);
+            flags[node] = flagsOf(current);
+            rules[node] = current.getRule();
+            childOffsets[node] = nodes.size();
+
+            for (MutableNode child : sortedChildren(current)) {
+                if (Rule.WILDCARD.equals(child.getLabel())) {
+                    flags[node] |= WILDCARD_CHILD;
+                }
+
+                int childNode = nodes.size();
+                labelIds[childNode] = labelIdsByLabel.computeIfAbsent(child.getLabel(), label -> labelIdsByLabel.size());
+                parents[childNode] = node;
+                nodes.add(child);
+            }
+        }
+        childOffsets[nodeCount] = nodeCount;
+
+        StringBuilder labelChars = new StringBuilder();
+        int[] labelOffsets = new int[labelIdsByLabel.size() + 1];
+        for (Map.Entry<String, Integer> label : labelIdsByLabel.entrySet()) {
+            labelOffsets[label.getValue()] = labelChars.length();
+            labelChars.append(label.getKey());
+        }
+        labelOffsets[labelIdsByLabel.size()] = labelChars.length();
+
+        return new ArrayRuleIndex(labelChars.toString().toCharArray(), labelOffsets, labelIds, parents, childOffsets, flags, rules);
+    }
+
+    @Override
+    int childOffset(int node) {
+        return childOffsets[node];
+    }
+
+    @Override
+    int labelId(int node) {
+        return labelIds[node];
+    }
+
+    @Override
+    int parent(int node) {
+        return parents[node];
+    }
+
+    @Override
+    byte flags(int node) {
+        return flags[node];
+    }
+
+    @Override
+    int labelOffset(int label) {
+        return labelOffsets[label];
+    }
+
+    @Override
+    char labelChar(int index) {
+        return labelChars[index];
+    }
+
+    private static byte flagsOf(MutableNode node) {
+        Rule rule = node.getRule();
+        if (rule == null) {
+            return 0;
+        }
+
+        return rule.isExceptionRule() ? (byte) (RULE | EXCEPTION_RULE) : RULE;
+    }
+
+    private static List<MutableNode> sortedChildren(MutableNode node) {
+        List<MutableNode> children = new ArrayList<>(node.getChildren());
+        children.sort(Comparator
+            .comparing((MutableNode child) -> !Rule.WILDCARD.equals(child.getLabel()))
+            .thenComparing(MutableNode::getLabel));
+        return children;
+    }
+
+    private static int countNodes(MutableNode node) {
+        int count = 1;
+        for (MutableNode child : node.getChildren()) {
+            count += countNodes(child);
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.util.DomainUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable open-addressed table of child nodes looked up by a label slice of a domain.
+ * <p>
+ * Node labels are stored lower case, domain chars are folded one at a time while hashing and comparing,
+ * so lookups are case-insensitive without copying the label.
+ *
+ * @param <T> type of the child nodes
+ */
+final class ChildTable<T extends Node<T>> {
+    private static final ChildTable<?> EMPTY = new ChildTable<>(new Object[1], new int[1], 0);
+
+    private final Object[] nodes;
+    private final int[] hashes;
+    private final int size;
+
+    private ChildTable(Object[] nodes, int[] hashes, int size) {
+        this.nodes = nodes;
+        this.hashes = hashes;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Node<T>> ChildTable<T> of(Collection<T> children) {
+        if (children.isEmpty()) {
+            return (ChildTable<T>) EMPTY;
+        }
+
+        int capacity = Integer.highestOneBit(children.size() * 2 - 1) << 1;
+        Object[] nodes = new Object[capacity];
+        int[] hashes = new int[capacity];
+        for (T child : children) {
+            String label = child.getLabel();
+            int hash = hash(label, 0, label.length());
+            int slot = hash & (capacity - 1);
+            while (nodes[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            nodes[slot] = child;
+            hashes[slot] = hash;
+        }
+
+        return new ChildTable<>(nodes, hashes, children.size());
+    }
+
+    /**
+     * Find the child labeled {@code [start, end)} of {@code domain}, ignoring case.
+     *
+     * @param domain containing the label
+     * @param start inclusive start index of the label
+     * @param end exclusive end index of the label
+     * @return child, {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    T get(CharSequence domain, int start, int end) {
+        if (size == 0) {
+            return null;
+        }
+
+        int hash = hash(domain, start, end);
+        int mask = nodes.length - 1;
+        for (int slot = hash & mask; nodes[slot] != null; slot = (slot + 1) & mask) {
+            T node = (T) nodes[slot];
+            if (hashes[slot] == hash && matches(node.getLabel(), domain, start, end)) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<T> values() {
+        List<T> values = new ArrayList<>(size);
+        for (Object node : nodes) {
+            if (node != null) {
+                values.add((T) node);
+            }
+        }
+
+        return values;
+    }
+
+    private static boolean matches(String label, CharSequence domain, int start, int end) {
+        if (label.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < label.length(); i++) {
+            if (label.charAt(i) != DomainUtils.toLowerCase(domain.charAt(start + i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(CharSequence domain, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + DomainUtils.toLowerCase(domain.charAt(i));
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * All rule suffixes stored in one open-addressed hash table.
+ * <p>
+ * Every suffix of every rule pattern is an entry keyed by a right-to-left rolling hash of its labels,
+ * the key of an entry combines the key of its parent suffix with the hash of its leftmost label.
+ * A lookup scans the domain once from the end, hashing each label while finding its start and probing
+ * the table at each label boundary. Probes are verified against the parent entry and label chars,
+ * so hash collisions never produce false matches.
+ * <p>
+ * Wildcard children are linked directly from their parent entry and matched alongside the literal label.
+ */
+class HashRuleIndex implements RuleIndex {
+    private static final byte RULE = 1;
+    private static final byte EXCEPTION_RULE = 2;
+    private static final byte PARENT = 4;
+
+    private static final int ROOT = 0;
+    private static final int NO_ENTRY = -1;
+    private static final long NO_MATCH = -1;
+
+    private final int[] table;
+    private final int mask;
+    private final int[] keys;
+    private final int[] parents;
+    private final int[] labelIds;
+    private final int[] wildcards;
+    private final byte[] flags;
+    private final Rule[] rules;
+    private final char[] labelChars;
+    private final int[] labelOffsets;
+    private final int ruleCount;
+
+    private HashRuleIndex(int entryCount, int labelCount, int labelCharCount, int ruleCount) {
+        this.table = new int[tableSize(entryCount)];
+        this.mask = table.length - 1;
+        this.keys = new int[entryCount];
+        this.parents = new int[entryCount];
+        this.labelIds = new int[entryCount];
+        this.wildcards = new int[entryCount];
+        this.flags = new byte[entryCount];
+        this.rules = new Rule[entryCount];
+        this.labelChars = new char[labelCharCount];
+        this.labelOffsets = new int[labelCount + 1];
+        this.ruleCount = ruleCount;
+    }
+
+    static HashRuleIndex from(MutableNode root) {
+        List<MutableNode> nodes = new ArrayList<>();
+        List<Integer> nodeParents = new ArrayList<>();
+        Map<String, Integer> labelIdsByLabel = new LinkedHashMap<>();
+        int labelCharCount = 0;
+        int ruleCount = 0;
+        nodes.add(root);
+        nodeParents.add(NO_ENTRY);
+        for (int node = 0; node < nodes.size(); node++) {
+            if (nodes.get(node).getRule() != null) {
+                ruleCount++;
+            }
+
+            for (MutableNode child : nodes.get(node).getChildren()) {
+                nodes.add(child);
+                nodeParents.add(node);
+                if (!labelIdsByLabel.containsKey(child.getLabel())) {
+                    labelIdsByLabel.put(child.getLabel(), labelIdsByLabel.size());
+                    labelCharCount += child.getLabel().length();
+                }
+            }
+        }
+
+        HashRuleIndex index = new HashRuleIndex(nodes.size(), labelIdsByLabel.size(), labelCharCount, ruleCount);
+        index.fillLabels(labelIdsByLabel);
+        index.fillEntries(nodes, nodeParents, labelIdsByLabel);
+        return index;
+    }
+
+    @Override
+    public Rule findRule(CharSequence domain) {
+        if (StringUtils.isBlank(domain)) {
+            return null;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end == 0) {
+            return null;
+        }
+
+        long prevailing = findPrevailing(ROOT, domain, end, 1, NO_MATCH);
+        if (prevailing == NO_MATCH) {
+            return null;
+        }
+
+        return rules[matchedEntry(prevailing)];
+    }
+
+    @Override
+    public List<Rule> findRules(CharSequence domain) {
+        List<Rule> matched = new ArrayList<>();
+        if (StringUtils.isBlank(domain)) {
+            return matched;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end > 0) {
+            findRules(ROOT, domain, end, matched);
+        }
+
+        return matched;
+    }
+
+    @Override
+    public List<Rule> getRules() {
+        List<Rule> registered = new ArrayList<>(ruleCount);
+        for (Rule rule : rules) {
+            if (rule != null) {
+                registered.add(rule);
+            }
+        }
+
+        return registered;
+    }
+
+    @Override
+    public RuleIndexType getType() {
+        return RuleIndexType.SUFFIX_HASH;
+    }
+
+    @Override
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    @Override
+    public List<String> getTopLevelLabels() {
+        List<String> labels = new ArrayList<>();
+        for (int entry = ROOT + 1; entry < parents.length && parents[entry] == ROOT; entry++) {
+            int label = labelIds[entry];
+            labels.add(new String(labelChars, labelOffsets[label], labelOffsets[label + 1] - labelOffsets[label]));
+        }
+
+        return labels;
+    }
+
+    private long findPrevailing(int entry, CharSequence domain, int end, int depth, long prevailing) {
+        int start = end;
+        int labelHash = 0;
+        for (char c; start > 0 && (c = domain.charAt(start - 1)) != '.'; start--) {
+            labelHash = 31 * labelHash + DomainUtils.toLowerCase(c);
+        }
+
+        int child = findChild(entry, labelHash, domain, start, end);
+        if (child != NO_ENTRY) {
+            prevailing = prevail(child, domain, start, depth, prevailing);
+            if (isExceptionMatch(prevailing)) {
+                return prevailing;
+            }
+        }
+
+        int wildcard = wildcards[entry];
+        if (wildcard != NO_ENTRY) {
+            prevailing = prevail(wildcard, domain, start, depth, prevailing);
+        }
+
+        return prevailing;
+    }
+
+    private long prevail(int entry, CharSequence domain, int start, int depth, long prevailing) {
+        byte entryFlags = flags[entry];
+        if ((entryFlags & RULE) != 0
+            && (prevailing == NO_MATCH || (entryFlags & EXCEPTION_RULE) != 0 || depth > matchedDepth(prevailing))) {
+            prevailing = ((long) depth << 32) | entry;
+        }
+
+        if (start == 0 || (entryFlags & PARENT) == 0 || isExceptionMatch(prevailing)) {
+            return prevailing;
+        }
+
+        return findPrevailing(entry, domain, start - 1, depth + 1, prevailing);
+    }
+
+    private void findRules(int entry, CharSequence domain, int end, List<Rule> matched) {
+        int start = end;
+        int labelHash = 0;
+        for (char c; start > 0 && (c = domain.charAt(start - 1)) != '.'; start--) {
+            labelHash = 31 * labelHash + DomainUtils.toLowerCase(c);
+        }
+
+        int child = findChild(entry, labelHash, domain, start, end);
+        int wildcard = wildcards[entry];
+
+        addRule(child, matched);
+        addRule(wildcard, matched);
+
+        if (start == 0) {
+            return;
+        }
+
+        if (child != NO_ENTRY) {
+            findRules(child, domain, start - 1, matched);
+        }
+
+        if (wildcard != NO_ENTRY) {
+            findRules(wildcard, domain, start - 1, matched);
+        }
+    }
+
+    private void addRule(int entry, List<Rule> matched) {
+        if (entry != NO_ENTRY && rules[entry] != null) {
+            matched.add(rules[entry]);
+        }
+    }
+
+    private int findChild(int parent, int labelHash, CharSequence domain, int start, int end) {
+        int key = key(keys[parent], labelHash);
+        for (int slot = key & mask; table[slot] != NO_ENTRY; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (keys[entry] == key && parents[entry] == parent && entry != wildcards[parent]
+                && labelEquals(labelIds[entry], domain, start, end)) {
+                return entry;
+            }
+        }
+
+        return NO_ENTRY;
+    }
+
+    private boolean labelEquals(int label, CharSequence domain, int start, int end) {
+        int labelStart = labelOffsets[label];
+        if (labelOffsets[label + 1] - labelStart != end - start) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (labelChars[labelStart + i - start] != DomainUtils.toLowerCase(domain.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void fillLabels(Map<String, Integer> labelIdsByLabel) {
+        int offset = 0;
+        for (Map.Entry<String, Integer> label : labelIdsByLabel.entrySet()) {
+            labelOffsets[label.getValue()] = offset;
+            label.getKey().getChars(0, label.getKey().length(), labelChars, offset);
+            offset += label.getKey().length();
+        }
+        labelOffsets[labelIdsByLabel.size()] = offset;
+    }
+
+    private void fillEntries(List<MutableNode> nodes, List<Integer> nodeParents, Map<String, Integer> labelIdsByLabel) {
+        Arrays.fill(table, NO_ENTRY);
+        Arrays.fill(wildcards, NO_ENTRY);
+        parents[ROOT] = NO_ENTRY;
+        labelIds[ROOT] = NO_ENTRY;
+
+        for (int entry = 0; entry < nodes.size(); entry++) {
+            MutableNode node = nodes.get(entry);
+            rules[entry] = node.getRule();
+            flags[entry] = flagsOf(node);
+
+            if (entry == ROOT) {
+                continue;
+            }
+
+            int parent = nodeParents.get(entry);
+            parents[entry] = parent;
+            labelIds[entry] = labelIdsByLabel.get(node.getLabel());
+            keys[entry] = key(keys[parent], labelHash(node.getLabel()));
+            if (Rule.WILDCARD.equals(node.getLabel())) {
+                wildcards[parent] = entry;
+            }
+
+            int slot = keys[entry] & mask;
+            while (table[slot] != NO_ENTRY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry;
+        }
+    }
+
+    private static byte flagsOf(MutableNode node) {
+        byte nodeFlags = node.getChildren().isEmpty() ? 0 : PARENT;
+        Rule rule = node.getRule();
+        if (rule != null) {
+            nodeFlags |= rule.isExceptionRule() ? RULE | EXCEPTION_RULE : RULE;
+        }
+
+        return nodeFlags;
+    }
+
+    private static int labelHash(String label) {
+        int hash = 0;
+        for (int i = label.length() - 1; i >= 0; i--) {
+            hash = 31 * hash + label.charAt(i);
+        }
+
+        return hash;
+    }
+
+    private static int key(int parentKey, int labelHash) {
+        int key = parentKey * 0x01000193 ^ labelHash;
+        key ^= key >>> 16;
+        key *= 0x85EBCA6B;
+        return key ^ key >>> 13;
+    }
+
+    private static int tableSize(int entryCount) {
+        return Integer.highestOneBit(Math.max(2, entryCount * 2) - 1) << 1;
+    }
+
+    private boolean isExceptionMatch(long prevailing) {
+        return prevailing != NO_MATCH && (flags[matchedEntry(prevailing)] & EXCEPTION_RULE) != 0;
+    }
+
+    private static int matchedEntry(long prevailing) {
+        return (int) prevailing;
+    }
+
+    private static int matchedDepth(long prevailing) {
+        return (int) (prevailing >>> 32);
+    }
+}
@@ -25,31 +25,88 @@
 package com.github.alturkovic.domain.registry;
 
 import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.StringUtils;
 import lombok.Getter;
 
 import java.util.*;
 
-@Getter
 class ImmutableNode extends Node<ImmutableNode> {
+    private final ChildTable<ImmutableNode> children;
+    private final ImmutableNode wildcard;
+    @Getter
     private final Rule rule;
+    @Getter
+    private final int depth;
 
-    ImmutableNode(String label, Map<String, ImmutableNode> children, Rule rule) {
-        super(label, Collections.unmodifiableMap(children));
+    ImmutableNode(String label, Map<String, ImmutableNode> children, Rule rule, int depth) {
+        super(label);
+        this.children = ChildTable.of(children.values());
+        this.wildcard = children.get(Rule.WILDCARD);
         this.rule = rule;
+        this.depth = depth;
     }
 
-    List<ImmutableNode> findNodes(String domain) {
-        return findNodes(convertDomain(domain));
+    @Override
+    Collection<ImmutableNode> getChildren() {
+        return children.values();
     }
 
-    List<ImmutableNode> findNodes(Deque<String> labels) {
-        List<ImmutableNode> nodes = new LinkedList<>();
-        if (labels.isEmpty()) {
+    @Override
+    ImmutableNode getChild(CharSequence domain, int start, int end) {
+        return children.get(domain, start, end);
+    }
+
+    @Override
+    ImmutableNode getWildcard() {
+        return wildcard;
+    }
+
+    /**
+     * Copy the children of this node.
+     *
+     * @return modifiable children by label
+     */
+    Map<String, ImmutableNode> getChildMap() {
+        Map<String, ImmutableNode> childMap = new HashMap<>();
+        for (ImmutableNode child : getChildren()) {
+            addChild(child, childMap);
+        }
+
+        return childMap;
+    }
+
+    ImmutableNode findPrevailingNode(CharSequence domain) {
+        if (StringUtils.isBlank(domain)) {
+            return null;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end == 0) {
+            return null;
+        }
+
+        return findPrevailingNode(domain, end, null);
+    }
+
+    List<ImmutableNode> findNodes(CharSequence domain) {
+        List<ImmutableNode> nodes = new ArrayList<>();
+        if (StringUtils.isBlank(domain)) {
             return nodes;
         }
 
-        String searchLabel = labels.removeLast();
-        ImmutableNode child = getChild(searchLabel);
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end > 0) {
+            findNodes(domain, end, nodes);
+        }
+
+        return nodes;
+    }
+
+    private void findNodes(CharSequence domain, int end, List<ImmutableNode> nodes) {
+        int start = DomainUtils.labelStart(domain, end);
+
+        ImmutableNode child = getChild(domain, start, end);
         if (child != null) {
             nodes.add(child);
         }
@@ -59,16 +116,114 @@ class ImmutableNode extends Node<ImmutableNode> {
             nodes.add(wildcard);
         }
 
-        for (ImmutableNode node : new ArrayList<>(nodes)) {
-            nodes.addAll(node.findNodes(new LinkedList<>(labels)));
+        if (start == 0) {
+            return;
         }
 
-        return nodes;
+        if (child != null) {
+            child.findNodes(domain, start - 1, nodes);
+        }
+
+        if (wildcard != null) {
+            wildcard.findNodes(domain, start - 1, nodes);
+        }
+    }
+
+    private ImmutableNode findPrevailingNode(CharSequence domain, int end, ImmutableNode prevailing) {
+        int start = DomainUtils.labelStart(domain, end);
+
+        ImmutableNode child = getChild(domain, start, end);
+        if (child != null) {
+            prevailing = child.prevail(domain, start, prevailing);
+            if (isException(prevailing)) {
+                return prevailing;
+            }
+        }
+
+        ImmutableNode wildcard = getWildcard();
+        if (wildcard != null) {
+            prevailing = wildcard.prevail(domain, start, prevailing);
+        }
+
+        return prevailing;
+    }
+
+    private ImmutableNode prevail(CharSequence domain, int start, ImmutableNode prevailing) {
+        if (rule != null && (prevailing == null || rule.isExceptionRule() || depth > prevailing.depth)) {
+            prevailing = this;
+        }
+
+        if (start == 0 || isException(prevailing)) {
+            return prevailing;
+        }
+
+        return findPrevailingNode(domain, start - 1, prevailing);
+    }
+
+    private static boolean isException(ImmutableNode node) {
+        return node != null && node.rule.isExceptionRule();
+    }
+
+    /**
+     * Find the node registered for {@code labels}, starting at {@code index}.
+     *
+     * @param labels reversed labels of a rule pattern
+     * @param index of the first label below this node
+     * @return node, {@code null} if there is none
+     */
+    ImmutableNode getDescendant(List<String> labels, int index) {
+        if (index == labels.size()) {
+            return this;
+        }
+
+        ImmutableNode child = getChild(labels.get(index));
+        return child == null ? null : child.getDescendant(labels, index + 1);
+    }
+
+    /**
+     * Copy the path to the node registered for {@code labels} and set its rule, all other nodes are shared.
+     * <p>
+     * Nodes without a rule and without children are removed from the copy.
+     *
+     * @param labels reversed labels of a rule pattern
+     * @param index of the first label below this node
+     * @param rule to set, {@code null} to remove the rule
+     * @return updated copy of this node, {@code null} if it was removed
+     */
+    ImmutableNode withDescendantRule(List<String> labels, int index, Rule rule) {
+        if (index == labels.size()) {
+            return copy(getChildMap(), rule);
+        }
+
+        String label = labels.get(index);
+        ImmutableNode child = getChild(label);
+        if (child == null) {
+            child = new ImmutableNode(label, Collections.emptyMap(), null, depth + 1);
+        }
+
+        Map<String, ImmutableNode> children = getChildMap();
+        ImmutableNode updatedChild = child.withDescendantRule(labels, index + 1, rule);
+        if (updatedChild == null) {
+            children.remove(child.getLabel());
+        } else {
+            addChild(updatedChild, children);
+        }
+
+        return copy(children, this.rule);
+    }
+
+    private ImmutableNode copy(Map<String, ImmutableNode> children, Rule rule) {
+        if (depth > 0 && rule == null && children.isEmpty()) {
+            return null;
+        }
+
+        return new ImmutableNode(getLabel(), children, rule, depth);
     }
 
     List<ImmutableNode> getDescendants() {
-        List<ImmutableNode> descendants = new ArrayList<>(getChildren());
-        for (ImmutableNode child : getChildren()) {
+        Collection<ImmutableNode> childNodes = getChildren();
+        List<ImmutableNode> descendants = new ArrayList<>(childNodes);
+        for (ImmutableNode child : childNodes) {
             descendants.addAll(child.getDescendants());
         }
 
@@ -22,47 +22,34 @@
  * SOFTWARE.
  */
 
-package com.github.alturkovic.domain.rule;
+package com.github.alturkovic.domain.registry;
 
 import com.github.alturkovic.domain.util.DomainUtils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-class ReverseDomainMatcher {
-    private final String domain;
-    private final List<String> reversedLabels;
-
-    private int matchedLabelsCount = 0;
-
-    ReverseDomainMatcher(String domain) {
-        this.domain = domain;
-        this.reversedLabels = DomainUtils.reversedDomainLabels(domain);
-    }
-
-    String next() {
-        if (matchedLabelsCount > reversedLabels.size()) {
-            throw new IndexOutOfBoundsException(String.format("%d > %s", matchedLabelsCount, domain));
-        }
-
-        String nextLabel = reversedLabels.get(matchedLabelsCount);
-        matchedLabelsCount++;
-        return nextLabel;
+/**
+ * Canonical lowercase labels, so that every distinct label is stored once across all nodes built with the same pool.
+ * <p>
+ * Registries updated from the same registry share its pool, so it can be used concurrently.
+ */
+class LabelPool {
+    private final Map<String, String> labels = new ConcurrentHashMap<>();
+
+    /**
+     * Find the canonical instance of {@code label}.
+     *
+     * @param label to intern
+     * @return lowercase label shared by all callers of this pool
+     */
+    String intern(String label) {
+        String lowercase = DomainUtils.toLowerCase(label);
+        String canonical = labels.putIfAbsent(lowercase, lowercase);
+        return canonical == null ? lowercase : canonical;
     }
 
     int size() {
-        return reversedLabels.size();
-    }
-
-    String matchedDomain() {
-        List<String> matchedDomain = new ArrayList<>(reversedLabels.subList(0, matchedLabelsCount));
-        Collections.reverse(matchedDomain);
-        return DomainUtils.joinLabels(matchedDomain);
-    }
-
-    @Override
-    public String toString() {
-        return domain;
+        return labels.size();
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link PackedRuleIndex} read in place from a snapshot buffer written by {@link RuleRegistrySnapshot}.
+ * <p>
+ * No trie data is copied to the heap. When the buffer is memory-mapped, all processes mapping the same
+ * snapshot share it through the page cache. Only the rules that are matched get created on the heap.
+ */
+class MappedRuleIndex extends PackedRuleIndex {
+    private final ByteBuffer snapshot;
+    private final int childOffsetsStart;
+    private final int labelIdsStart;
+    private final int parentsStart;
+    private final int labelOffsetsStart;
+    private final int labelCharsStart;
+    private final int flagsStart;
+
+    MappedRuleIndex(ByteBuffer snapshot, int nodeCount, int labelCount, int labelCharCount) {
+        super(nodeCount);
+        this.snapshot = snapshot;
+        this.childOffsetsStart = RuleRegistrySnapshot.HEADER_SIZE;
+        this.labelIdsStart = childOffsetsStart + (nodeCount + 1) * Integer.BYTES;
+        this.parentsStart = labelIdsStart + nodeCount * Integer.BYTES;
+        this.labelOffsetsStart = parentsStart + nodeCount * Integer.BYTES;
+        this.labelCharsStart = labelOffsetsStart + (labelCount + 1) * Integer.BYTES;
+        this.flagsStart = labelCharsStart + labelCharCount * Character.BYTES;
+    }
+
+    ByteBuffer getSnapshot() {
+        return snapshot.duplicate();
+    }
+
+    @Override
+    int childOffset(int node) {
+        return snapshot.getInt(childOffsetsStart + node * Integer.BYTES);
+    }
+
+    @Override
+    int labelId(int node) {
+        return snapshot.getInt(labelIdsStart + node * Integer.BYTES);
+    }
+
+    @Override
+    int parent(int node) {
+        return snapshot.getInt(parentsStart + node * Integer.BYTES);
+    }
+
+    @Override
+    byte flags(int node) {
+        return snapshot.get(flagsStart + node);
+    }
+
+    @Override
+    int labelOffset(int label) {
+        return snapshot.getInt(labelOffsetsStart + label * Integer.BYTES);
+    }
+
+    @Override
+    char labelChar(int index) {
+        return snapshot.getChar(labelCharsStart + index * Character.BYTES);
+    }
+}
@@ -25,40 +25,59 @@
 package com.github.alturkovic.domain.registry;
 
 import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 
-@Getter
-@Setter
 class MutableNode extends Node<MutableNode> {
+    private final Map<String, MutableNode> children = new HashMap<>();
+    @Getter
+    @Setter
     private Rule rule;
 
     MutableNode(String label) {
         super(label);
     }
 
-    MutableNode getOrCreateDescendant(String rulePattern) {
-        return getOrCreateDescendant(convertDomain(rulePattern));
+    @Override
+    Collection<MutableNode> getChildren() {
+        return children.values();
     }
 
-    MutableNode getOrCreateChild(String childLabel) {
+    @Override
+    MutableNode getChild(CharSequence domain, int start, int end) {
+        return children.get(DomainUtils.toLowerCase(domain.subSequence(start, end).toString()));
+    }
+
+    void addChild(MutableNode node) {
+        addChild(node, children);
+    }
+
+    MutableNode getOrCreateDescendant(String rulePattern, LabelPool labelPool) {
+        return getOrCreateDescendant(convertDomain(rulePattern), labelPool);
+    }
+
+    MutableNode getOrCreateChild(String childLabel, LabelPool labelPool) {
         MutableNode child = getChild(childLabel);
         if (child == null) {
-            child = new MutableNode(childLabel);
+            child = new MutableNode(labelPool.intern(childLabel));
             addChild(child);
         }
 
         return child;
     }
 
-    private MutableNode getOrCreateDescendant(Deque<String> labels) {
+    private MutableNode getOrCreateDescendant(Deque<String> labels, LabelPool labelPool) {
         if (labels.isEmpty()) {
             return this;
         }
 
-        MutableNode child = getOrCreateChild(labels.removeLast());
-        return child.getOrCreateDescendant(labels);
+        MutableNode child = getOrCreateChild(labels.removeLast(), labelPool);
+        return child.getOrCreateDescendant(labels, labelPool);
     }
 }
\ No newline at end of file
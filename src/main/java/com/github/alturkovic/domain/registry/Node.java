@@ -31,27 +31,25 @@ import java.util.*;
 
 abstract class Node<T extends Node<T>> {
     private final String label;
-    private final Map<String, T> children;
 
     Node(String label) {
-        this(label, new HashMap<>());
+        this.label = (label == null) ? null : DomainUtils.toLowerCase(label);
     }
 
-    Node(String label, Map<String, T> children) {
-        this.label = (label == null) ? null : label.toLowerCase();
-        this.children = children;
-    }
+    abstract Collection<T> getChildren();
 
-    Collection<T> getChildren() {
-        return children.values();
-    }
+    /**
+     * Find the child labeled {@code [start, end)} of {@code domain}, ignoring case.
+     *
+     * @param domain containing the label
+     * @param start inclusive start index of the label
+     * @param end exclusive end index of the label
+     * @return child, {@code null} if there is none
+     */
+    abstract T getChild(CharSequence domain, int start, int end);
 
     T getChild(String childLabel) {
-        return children.get(childLabel.toLowerCase());
-    }
-
-    void addChild(T node) {
-        addChild(node, children);
+        return getChild(childLabel, 0, childLabel.length());
     }
 
     String getLabel() {
@@ -61,7 +59,7 @@ abstract class Node<T extends Node<T>> {
     abstract Rule getRule();
 
     T getWildcard() {
-        return children.get(Rule.WILDCARD);
+        return getChild(Rule.WILDCARD);
     }
 
     Deque<String> convertDomain(String domain) {
@@ -76,4 +74,4 @@ abstract class Node<T extends Node<T>> {
     public String toString() {
         return label;
     }
-}
\ No newline at end of file
+}
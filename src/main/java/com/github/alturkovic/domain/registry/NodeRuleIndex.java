@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+class NodeRuleIndex implements RuleIndex {
+    private final ImmutableNode root;
+    private final int ruleCount;
+    private final LabelPool labelPool;
+
+    NodeRuleIndex(ImmutableNode root, LabelPool labelPool) {
+        this.root = root;
+        this.labelPool = labelPool;
+        this.ruleCount = getRules().size();
+    }
+
+    NodeRuleIndex(ImmutableNode root, int ruleCount, LabelPool labelPool) {
+        this.root = root;
+        this.ruleCount = ruleCount;
+        this.labelPool = labelPool;
+    }
+
+    ImmutableNode getRoot() {
+        return root;
+    }
+
+    LabelPool getLabelPool() {
+        return labelPool;
+    }
+
+    @Override
+    public Rule findRule(CharSequence domain) {
+        ImmutableNode prevailing = root.findPrevailingNode(domain);
+        if (prevailing == null) {
+            return null;
+        }
+
+        return prevailing.getRule();
+    }
+
+    @Override
+    public List<Rule> findRules(CharSequence domain) {
+        return asRuleList(root.findNodes(domain));
+    }
+
+    @Override
+    public List<Rule> getRules() {
+        return asRuleList(root.getDescendants());
+    }
+
+    @Override
+    public RuleIndexType getType() {
+        return RuleIndexType.NODE_TRIE;
+    }
+
+    @Override
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    @Override
+    public List<String> getTopLevelLabels() {
+        return root.getChildren().stream()
+            .map(Node::getLabel)
+            .collect(Collectors.toList());
+    }
+
+    private List<Rule> asRuleList(List<ImmutableNode> nodes) {
+        return nodes.stream()
+            .map(Node::getRule)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
+import com.github.alturkovic.domain.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trie packed into parallel primitive arrays indexed by node.
+ * <p>
+ * Nodes are stored in breadth-first order, so the children of a node occupy the range
+ * {@code [childOffset(node), childOffset(node + 1))}. The wildcard child, if any, is the first
+ * child and the remaining children are sorted by label, which allows a binary search on every step.
+ * <p>
+ * Distinct labels are stored once, label {@code id} occupies the chars
+ * {@code [labelOffset(id), labelOffset(id + 1))}.
+ * <p>
+ * Indexes built from rules keep the registered {@link Rule} instances. Indexes read from a snapshot do not have them,
+ * their rules are recreated from the lower case node path when first matched and cached.
+ * Subclasses only decide where the arrays are stored.
+ */
+abstract class PackedRuleIndex implements RuleIndex {
+    static final byte RULE = 1;
+    static final byte EXCEPTION_RULE = 2;
+    static final byte WILDCARD_CHILD = 4;
+
+    static final int ROOT = 0;
+    static final int NO_NODE = -1;
+    static final int NO_LABEL = -1;
+
+    private static final long NO_MATCH = -1;
+
+    private final Rule[] rules;
+    private int ruleCount = -1;
+
+    PackedRuleIndex(int nodeCount) {
+        this(new Rule[nodeCount]);
+    }
+
+    PackedRuleIndex(Rule[] rules) {
+        this.rules = rules;
+    }
+
+    abstract int childOffset(int node);
+
+    abstract int labelId(int node);
+
+    abstract int parent(int node);
+
+    abstract byte flags(int node);
+
+    abstract int labelOffset(int label);
+
+    abstract char labelChar(int index);
+
+    @Override
+    public Rule findRule(CharSequence domain) {
+        if (StringUtils.isBlank(domain)) {
+            return null;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end == 0) {
+            return null;
+        }
+
+        long prevailing = findPrevailing(ROOT, domain, end, 1, NO_MATCH);
+        if (prevailing == NO_MATCH) {
+            return null;
+        }
+
+        return getRule(matchedNode(prevailing));
+    }
+
+    @Override
+    public List<Rule> findRules(CharSequence domain) {
+        List<Rule> rules = new ArrayList<>();
+        if (StringUtils.isBlank(domain)) {
+            return rules;
+        }
+
+        int end = DomainUtils.lastLabelEnd(domain);
+        if (end > 0) {
+            findRules(ROOT, domain, end, rules);
+        }
+
+        return rules;
+    }
+
+    @Override
+    public List<Rule> getRules() {
+        List<Rule> rules = new ArrayList<>();
+        for (int node = 0; node < nodeCount(); node++) {
+            if (isRule(node)) {
+                rules.add(getRule(node));
+            }
+        }
+
+        return rules;
+    }
+
+    /**
+     * Mapped snapshots report {@link RuleIndexType#ARRAY_TRIE} as well, so they are rebuilt on the heap with that layout.
+     */
+    @Override
+    public RuleIndexType getType() {
+        return RuleIndexType.ARRAY_TRIE;
+    }
+
+    @Override
+    public int getRuleCount() {
+        if (ruleCount < 0) {
+            int count = 0;
+            for (int node = 0; node < nodeCount(); node++) {
+                if (isRule(node)) {
+                    count++;
+                }
+            }
+            ruleCount = count;
+        }
+
+        return ruleCount;
+    }
+
+    @Override
+    public List<String> getTopLevelLabels() {
+        List<String> labels = new ArrayList<>();
+        for (int node = childOffset(ROOT); node < childOffset(ROOT + 1); node++) {
+            labels.add(labelOf(node));
+        }
+
+        return labels;
+    }
+
+    int nodeCount() {
+        return rules.length;
+    }
+
+    private long findPrevailing(int node, CharSequence domain, int end, int depth, long prevailing) {
+        int start = DomainUtils.labelStart(domain, end);
+
+        int child = findChild(node, domain, start, end);
+        if (child != NO_NODE) {
+            prevailing = prevail(child, domain, start, depth, prevailing);
+            if (isExceptionMatch(prevailing)) {
+                return prevailing;
+            }
+        }
+
+        if (hasWildcardChild(node)) {
+            prevailing = prevail(childOffset(node), domain, start, depth, prevailing);
+        }
+
+        return prevailing;
+    }
+
+    private long prevail(int node, CharSequence domain, int start, int depth, long prevailing) {
+        byte nodeFlags = flags(node);
+        if ((nodeFlags & RULE) != 0
+            && (prevailing == NO_MATCH || (nodeFlags & EXCEPTION_RULE) != 0 || depth > matchedDepth(prevailing))) {
+            prevailing = ((long) depth << 32) | node;
+        }
+
+        if (start == 0 || isLeaf(node) || isExceptionMatch(prevailing)) {
+            return prevailing;
+        }
+
+        return findPrevailing(node, domain, start - 1, depth + 1, prevailing);
+    }
+
+    private void findRules(int node, CharSequence domain, int end, List<Rule> rules) {
+        int start = DomainUtils.labelStart(domain, end);
+
+        int child = findChild(node, domain, start, end);
+        int wildcard = hasWildcardChild(node) ? childOffset(node) : NO_NODE;
+
+        addRule(child, rules);
+        addRule(wildcard, rules);
+
+        if (start == 0) {
+            return;
+        }
+
+        if (child != NO_NODE) {
+            findRules(child, domain, start - 1, rules);
+        }
+
+        if (wildcard != NO_NODE) {
+            findRules(wildcard, domain, start - 1, rules);
+        }
+    }
+
+    private void addRule(int node, List<Rule> rules) {
+        if (node != NO_NODE && isRule(node)) {
+            rules.add(getRule(node));
+        }
+    }
+
+    private int findChild(int node, CharSequence domain, int start, int end) {
+        int low = childOffset(node);
+        int high = childOffset(node + 1) - 1;
+        if (hasWildcardChild(node)) {
+            low++;
+        }
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareLabel(labelId(middle), domain, start, end);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return NO_NODE;
+    }
+
+    private int compareLabel(int label, CharSequence domain, int start, int end) {
+        int labelStart = labelOffset(label);
+        int labelLength = labelOffset(label + 1) - labelStart;
+        int length = end - start;
+        int common = Math.min(labelLength, length);
+        for (int i = 0; i < common; i++) {
+            char labelChar = labelChar(labelStart + i);
+            char domainChar = DomainUtils.toLowerCase(domain.charAt(start + i));
+            if (labelChar != domainChar) {
+                return labelChar - domainChar;
+            }
+        }
+
+        return labelLength - length;
+    }
+
+    private Rule getRule(int node) {
+        Rule rule = rules[node];
+        if (rule == null) {
+            rule = new Rule(patternOf(node));
+            rules[node] = rule;
+        }
+
+        return rule;
+    }
+
+    private String patternOf(int node) {
+        StringBuilder pattern = new StringBuilder();
+        if ((flags(node) & EXCEPTION_RULE) != 0) {
+            pattern.append(Rule.EXCEPTION_TOKEN);
+        }
+
+        for (int current = node; current != ROOT; current = parent(current)) {
+            if (current != node) {
+                pattern.append('.');
+            }
+
+            pattern.append(labelOf(current));
+        }
+
+        return pattern.toString();
+    }
+
+    private String labelOf(int node) {
+        int label = labelId(node);
+        char[] chars = new char[labelOffset(label + 1) - labelOffset(label)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = labelChar(labelOffset(label) + i);
+        }
+
+        return new String(chars);
+    }
+
+    private boolean isRule(int node) {
+        return (flags(node) & RULE) != 0;
+    }
+
+    private boolean hasWildcardChild(int node) {
+        return (flags(node) & WILDCARD_CHILD) != 0;
+    }
+
+    private boolean isLeaf(int node) {
+        return childOffset(node) == childOffset(node + 1);
+    }
+
+    private boolean isExceptionMatch(long prevailing) {
+        return prevailing != NO_MATCH && (flags(matchedNode(prevailing)) & EXCEPTION_RULE) != 0;
+    }
+
+    private static int matchedNode(long prevailing) {
+        return (int) prevailing;
+    }
+
+    private static int matchedDepth(long prevailing) {
+        return (int) (prevailing >>> 32);
+    }
+}
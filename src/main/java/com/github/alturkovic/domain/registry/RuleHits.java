@@ -22,26 +22,24 @@
  * SOFTWARE.
  */
 
-package com.github.alturkovic.domain.rule;
+package com.github.alturkovic.domain.registry;
 
+import com.github.alturkovic.domain.rule.Rule;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
+/**
+ * Number of lookups that resolved to a {@link Rule}.
+ *
+ * @see RuleProfiler
+ */
+@Getter
+@ToString
 @EqualsAndHashCode
 @AllArgsConstructor
-class LabelMatcher {
-    private final String pattern;
-
-    boolean isMatch(String label) {
-        if (pattern.equals(Rule.WILDCARD)) {
-            return true;
-        }
-
-        return pattern.equalsIgnoreCase(label);
-    }
-
-    @Override
-    public String toString() {
-        return pattern;
-    }
-}
\ No newline at end of file
+public final class RuleHits {
+    private final Rule rule;
+    private final long count;
+}
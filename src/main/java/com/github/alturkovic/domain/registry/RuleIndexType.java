@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+/**
+ * Memory layout used by a {@link RuleRegistry} to store its rules.
+ * <p>
+ * All layouts find the same rules, they only differ in memory footprint and lookup speed.
+ */
+public enum RuleIndexType {
+
+    /**
+     * Trie with one object per label, children are kept in hash maps.
+     */
+    NODE_TRIE,
+
+    /**
+     * Trie packed into parallel primitive arrays, children are kept in sorted label ranges.
+     * <p>
+     * Uses a fraction of the {@link #NODE_TRIE} memory and rules are created only once they are matched.
+     */
+    ARRAY_TRIE,
+
+    /**
+     * All rule suffixes in one open-addressed hash table keyed by a rolling hash of their labels.
+     * <p>
+     * Lookups probe the table once per label of the domain instead of walking node maps,
+     * which favours short domains.
+     */
+    SUFFIX_HASH
+}
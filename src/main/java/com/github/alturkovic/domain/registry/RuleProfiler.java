@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each {@link Rule} prevails in lookups of a {@link RuleRegistry}.
+ * <p>
+ * Counting a lookup costs a hash map read and a {@link LongAdder} increment, which scales with concurrent lookups.
+ *
+ * @see RuleRegistry#withProfiling()
+ */
+public class RuleProfiler {
+    private final Map<Rule, LongAdder> hits = new ConcurrentHashMap<>();
+    private final LongAdder unmatched = new LongAdder();
+
+    void record(Rule rule) {
+        if (rule == null) {
+            unmatched.increment();
+            return;
+        }
+
+        LongAdder counter = hits.get(rule);
+        if (counter == null) {
+            counter = hits.computeIfAbsent(rule, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Count a lookup that matched no rule without reaching the registry,
+     * for example a domain rejected for an unknown top level label.
+     */
+    public void recordUnmatched() {
+        unmatched.increment();
+    }
+
+    /**
+     * Get the rules that prevailed most often since the last {@link #reset()}.
+     * <p>
+     * Counts of concurrent lookups may or may not be included.
+     *
+     * @param limit maximum number of rules to return
+     * @return rules with their hit counts, most hits first
+     */
+    public List<RuleHits> snapshot(int limit) {
+        List<RuleHits> snapshot = new ArrayList<>(hits.size());
+        for (Map.Entry<Rule, LongAdder> entry : hits.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                snapshot.add(new RuleHits(entry.getKey(), count));
+            }
+        }
+
+        snapshot.sort(Comparator.comparingLong(RuleHits::getCount).reversed());
+        return snapshot.size() > limit ? new ArrayList<>(snapshot.subList(0, limit)) : snapshot;
+    }
+
+    /**
+     * Get how often {@code rule} prevailed since the last {@link #reset()}.
+     *
+     * @param rule to get the hit count for
+     * @return hit count
+     */
+    public long getHits(Rule rule) {
+        LongAdder counter = hits.get(rule);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Get the number of lookups that matched no rule since the last {@link #reset()}.
+     *
+     * @return unmatched lookup count
+     */
+    public long getUnmatchedCount() {
+        return unmatched.sum();
+    }
+
+    /**
+     * Reset all counts to zero.
+     */
+    public void reset() {
+        hits.values().forEach(LongAdder::reset);
+        unmatched.reset();
+    }
+}
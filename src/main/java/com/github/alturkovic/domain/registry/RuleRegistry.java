@@ -26,21 +26,50 @@ package com.github.alturkovic.domain.registry;
 
 import com.github.alturkovic.domain.rule.Rule;
 import com.github.alturkovic.domain.rule.RuleComparator;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Used to find rules that match domains.
  * <p>
  * It will return results in O(log(n)) time complexity.
+ *
+ * @see RuleIndexType
  */
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class RuleRegistry {
-    private final ImmutableNode root;
+    @Getter(AccessLevel.PACKAGE)
+    private final RuleIndex index;
+    private final RuleProfiler profiler;
+
+    RuleRegistry(RuleIndex index) {
+        this(index, null);
+    }
+
+    /**
+     * Create a registry with the same rules that counts how often each rule prevails.
+     * <p>
+     * The rules are shared, this registry is not profiled.
+     *
+     * @return profiled registry
+     * @see #getProfiler()
+     */
+    public RuleRegistry withProfiling() {
+        return new RuleRegistry(index, new RuleProfiler());
+    }
+
+    /**
+     * Get the rule hit counts of a registry created with {@link #withProfiling()}.
+     *
+     * @return profiler, empty if this registry is not profiled
+     */
+    public Optional<RuleProfiler> getProfiler() {
+        return Optional.ofNullable(profiler);
+    }
 
     /**
      * Get all registered rules managed by this registry.
@@ -48,37 +77,68 @@ public class RuleRegistry {
      * @return registered rules
      */
     public List<Rule> getRules() {
-        List<ImmutableNode> descendants = root.getDescendants();
-        return asRuleList(descendants);
+        return index.getRules();
+    }
+
+    /**
+     * Get the number of registered rules managed by this registry.
+     *
+     * @return registered rule count
+     */
+    public int getRuleCount() {
+        return index.getRuleCount();
+    }
+
+    /**
+     * Get the distinct lower case top level labels of all registered rules, such as {@code com} or {@code *}.
+     *
+     * @return top level labels
+     */
+    public List<String> getTopLevelLabels() {
+        return index.getTopLevelLabels();
     }
 
     /**
      * Find the prevailing {@link Rule} for {@code domain}.
+     * <p>
+     * The prevailing rule is tracked while descending, so no candidate list is built.
+     * An exception rule prevails outright, otherwise the rule with the most labels prevails.
      *
      * @param domain to match
      * @return the prevailing {@link Rule}
+     * @see RuleComparator
      */
     public Optional<Rule> findRule(String domain) {
-        return findRules(domain).stream().max(RuleComparator.INSTANCE);
+        return findRule((CharSequence) domain);
+    }
+
+    /**
+     * Find the prevailing {@link Rule} for {@code domain}, see {@link #findRule(String)}.
+     * <p>
+     * Labels are case folded while matching, so the domain is not copied.
+     *
+     * @param domain to match
+     * @return the prevailing {@link Rule}
+     */
+    public Optional<Rule> findRule(CharSequence domain) {
+        Rule rule = index.findRule(domain);
+        if (profiler != null) {
+            profiler.record(rule);
+        }
+
+        return Optional.ofNullable(rule);
     }
 
     /**
      * Find a list of matching rules.
      * <p>
      * This list may not include all matching rules, but will include the prevailing rule.
+     * Intended for diagnostics, use {@link #findRule(String)} to find the prevailing rule.
      *
      * @param domain to match
      * @return matching rules
      */
     public List<Rule> findRules(String domain) {
-        List<ImmutableNode> nodes = root.findNodes(domain.toLowerCase());
-        return asRuleList(nodes);
-    }
-
-    private List<Rule> asRuleList(List<ImmutableNode> nodes) {
-        return nodes.stream()
-            .map(Node::getRule)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        return index.findRules(domain);
     }
 }
\ No newline at end of file
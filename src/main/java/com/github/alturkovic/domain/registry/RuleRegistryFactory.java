@@ -25,10 +25,10 @@
 package com.github.alturkovic.domain.registry;
 
 import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.util.DomainUtils;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Used to build {@link RuleRegistry} from a list of rules.
@@ -36,27 +36,134 @@ import java.util.Map;
 public class RuleRegistryFactory {
 
     /**
-     * Build the {@link RuleRegistry} from {@code rules}.
+     * Build the {@link RuleRegistry} from {@code rules} using the {@link RuleIndexType#NODE_TRIE} layout.
      *
      * @param rules to register
      * @return registry
      */
     public RuleRegistry build(List<Rule> rules) {
+        return build(rules, RuleIndexType.NODE_TRIE);
+    }
+
+    /**
+     * Build the {@link RuleRegistry} from {@code rules} using the {@code indexType} layout.
+     *
+     * @param rules to register
+     * @param indexType layout of the registry
+     * @return registry
+     */
+    public RuleRegistry build(List<Rule> rules, RuleIndexType indexType) {
+        return build(rules.stream(), indexType);
+    }
+
+    /**
+     * Build the {@link RuleRegistry} from a stream of {@code rules} using the {@code indexType} layout.
+     * <p>
+     * Rules are inserted in encounter order as they arrive, so a parallel stream can parse
+     * while the trie is built without collecting the rules first. Equal labels of all nodes share one instance.
+     *
+     * @param rules to register
+     * @param indexType layout of the registry
+     * @return registry
+     */
+    public RuleRegistry build(Stream<Rule> rules, RuleIndexType indexType) {
         MutableNode root = new MutableNode(null);
-        for (Rule rule : rules) {
-            MutableNode node = root.getOrCreateDescendant(rule.getPattern());
-            node.setRule(rule);
+        LabelPool labelPool = new LabelPool();
+        rules.forEachOrdered(rule -> root.getOrCreateDescendant(rule.getPattern(), labelPool).setRule(rule));
+        return new RuleRegistry(createIndex(root, indexType, labelPool));
+    }
+
+    /**
+     * Create a new {@link RuleRegistry} from {@code registry} with {@code removed} rules removed and {@code added} rules added.
+     * <p>
+     * For the {@link RuleIndexType#NODE_TRIE} layout only the paths to changed nodes are copied, all other nodes are shared
+     * with {@code registry}, which is not modified and stays usable. Other layouts are rebuilt with the same layout,
+     * except registries read in place by {@link RuleRegistrySnapshot#map(java.nio.file.Path)} or
+     * {@link RuleRegistrySnapshot#wrap(java.nio.ByteBuffer)}, which are rebuilt on the heap as {@link RuleIndexType#ARRAY_TRIE}.
+     * <p>
+     * Patterns are compared ignoring case, like domains are matched. Removed rules that are not registered are ignored.
+     * An added rule replaces a registered rule with the same pattern.
+     * <p>
+     * The updated registry shares the {@link RuleProfiler} of {@code registry}, so hit counts continue across updates.
+     *
+     * @param registry to update
+     * @param added rules to add
+     * @param removed rules to remove
+     * @return updated registry
+     */
+    public RuleRegistry update(RuleRegistry registry, Collection<Rule> added, Collection<Rule> removed) {
+        RuleProfiler profiler = registry.getProfiler().orElse(null);
+        if (!(registry.getIndex() instanceof NodeRuleIndex)) {
+            Map<String, Rule> rules = new LinkedHashMap<>();
+            for (Rule rule : registry.getRules()) {
+                rules.put(DomainUtils.toLowerCase(rule.getPattern()), rule);
+            }
+            for (Rule rule : removed) {
+                rules.computeIfPresent(DomainUtils.toLowerCase(rule.getPattern()), (pattern, registered) -> isSameRule(rule, registered) ? null : registered);
+            }
+            for (Rule rule : added) {
+                rules.put(DomainUtils.toLowerCase(rule.getPattern()), rule);
+            }
+            return new RuleRegistry(build(new ArrayList<>(rules.values()), registry.getIndex().getType()).getIndex(), profiler);
+        }
+
+        NodeRuleIndex index = (NodeRuleIndex) registry.getIndex();
+        LabelPool labelPool = index.getLabelPool();
+        ImmutableNode root = index.getRoot();
+        int ruleCount = index.getRuleCount();
+
+        for (Rule rule : removed) {
+            List<String> labels = reversedLabels(rule, labelPool);
+            ImmutableNode node = root.getDescendant(labels, 0);
+            if (node != null && isSameRule(rule, node.getRule())) {
+                root = root.withDescendantRule(labels, 0, null);
+                ruleCount--;
+            }
+        }
+
+        for (Rule rule : added) {
+            List<String> labels = reversedLabels(rule, labelPool);
+            ImmutableNode node = root.getDescendant(labels, 0);
+            if (node == null || node.getRule() == null) {
+                ruleCount++;
+            }
+            root = root.withDescendantRule(labels, 0, rule);
         }
 
-        return new RuleRegistry(convert(root));
+        return new RuleRegistry(new NodeRuleIndex(root, ruleCount, labelPool), profiler);
+    }
+
+    private static List<String> reversedLabels(Rule rule, LabelPool labelPool) {
+        List<String> labels = DomainUtils.reversedDomainLabels(rule.getPattern());
+        labels.replaceAll(labelPool::intern);
+        return labels;
+    }
+
+    private static boolean isSameRule(Rule rule, Rule registered) {
+        return registered != null
+            && rule.isExceptionRule() == registered.isExceptionRule()
+            && DomainUtils.toLowerCase(rule.getPattern()).equals(DomainUtils.toLowerCase(registered.getPattern()));
+    }
+
+    private RuleIndex createIndex(MutableNode root, RuleIndexType indexType, LabelPool labelPool) {
+        switch (indexType) {
+            case NODE_TRIE:
+                return new NodeRuleIndex(convert(root, 0), labelPool);
+            case ARRAY_TRIE:
+                return ArrayRuleIndex.from(root);
+            case SUFFIX_HASH:
+                return HashRuleIndex.from(root);
+            default:
+                throw new IllegalArgumentException("Unsupported index type: " + indexType);
+        }
     }
 
-    private ImmutableNode convert(MutableNode node) {
+    private ImmutableNode convert(MutableNode node, int depth) {
         Map<String, ImmutableNode> convertedChildren = new HashMap<>();
         for (MutableNode child : node.getChildren()) {
-            Node.addChild(convert(child), convertedChildren);
+            Node.addChild(convert(child, depth + 1), convertedChildren);
         }
 
-        return new ImmutableNode(node.getLabel(), convertedChildren, node.getRule());
+        return new ImmutableNode(node.getLabel(), convertedChildren, node.getRule(), depth);
     }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes {@link RuleRegistry} instances in a compact binary format.
+ * <p>
+ * A snapshot contains the {@link RuleIndexType#ARRAY_TRIE} layout as is, so reading it is a bulk copy of arrays
+ * without parsing any rules. Snapshots end with a CRC32 checksum and corrupted snapshots are rejected.
+ * <p>
+ * Snapshots can also be served in place from a memory-mapped file or any other {@link ByteBuffer},
+ * without copying the trie to the heap.
+ * <p>
+ * All values are stored in big-endian order:
+ * <pre>
+ * int    magic
+ * int    format version
+ * int    node count
+ * int    label count
+ * int    label char count
+ * int[]  child offsets (node count + 1)
+ * int[]  label ids (node count)
+ * int[]  parents (node count)
+ * int[]  label offsets (label count + 1)
+ * char[] label chars (label char count)
+ * byte[] flags (node count)
+ * long   CRC32 of all preceding bytes
+ * </pre>
+ */
+public class RuleRegistrySnapshot {
+    static final int MAGIC = 0x50534C53;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Write {@code registry} as a snapshot to {@code outputStream}.
+     * <p>
+     * Registries with other layouts are converted to {@link RuleIndexType#ARRAY_TRIE} first.
+     *
+     * @param registry to write
+     * @param outputStream to write to, it is not closed
+     * @throws IOException if writing fails
+     */
+    public void write(RuleRegistry registry, OutputStream outputStream) throws IOException {
+        if (registry.getIndex() instanceof MappedRuleIndex) {
+            ByteBuffer snapshot = ((MappedRuleIndex) registry.getIndex()).getSnapshot();
+            WritableByteChannel channel = Channels.newChannel(outputStream);
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            return;
+        }
+
+        ArrayRuleIndex index = asArrayIndex(registry);
+
+        CRC32 checksum = new CRC32();
+        DataOutputStream output = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(outputStream), checksum));
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(index.getFlags().length);
+        output.writeInt(index.getLabelOffsets().length - 1);
+        output.writeInt(index.getLabelChars().length);
+        writeInts(output, index.getChildOffsets());
+        writeInts(output, index.getLabelIds());
+        writeInts(output, index.getParents());
+        writeInts(output, index.getLabelOffsets());
+        for (char labelChar : index.getLabelChars()) {
+            output.writeChar(labelChar);
+        }
+        output.write(index.getFlags());
+
+        output.writeLong(checksum.getValue());
+        output.flush();
+    }
+
+    /**
+     * Read a snapshot from {@code inputStream}.
+     * <p>
+     * The returned registry uses the {@link RuleIndexType#ARRAY_TRIE} layout.
+     * Snapshots store lower case labels, so its rules are recreated with lower case patterns.
+     *
+     * @param inputStream to read from, it is not closed
+     * @return registry
+     * @throws IOException if reading fails or the snapshot is corrupted
+     */
+    public RuleRegistry read(InputStream inputStream) throws IOException {
+        byte[] bytes = readFully(inputStream);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        int nodeCount = validate(header);
+        int labelCount = header.getInt(3 * Integer.BYTES);
+        int labelCharCount = header.getInt(4 * Integer.BYTES);
+
+        ByteBuffer snapshot = ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+
+        int[] childOffsets = readInts(snapshot, nodeCount + 1);
+        int[] labelIds = readInts(snapshot, nodeCount);
+        int[] parents = readInts(snapshot, nodeCount);
+        int[] labelOffsets = readInts(snapshot, labelCount + 1);
+
+        char[] labelChars = new char[labelCharCount];
+        for (int i = 0; i < labelCharCount; i++) {
+            labelChars[i] = snapshot.getChar();
+        }
+
+        byte[] flags = new byte[nodeCount];
+        snapshot.get(flags);
+
+        return new RuleRegistry(new ArrayRuleIndex(labelChars, labelOffsets, labelIds, parents, childOffsets, flags));
+    }
+
+    /**
+     * Memory-map the snapshot in {@code path} and serve lookups directly from the mapping.
+     * <p>
+     * The file must not be modified while it is mapped, replace it atomically instead.
+     *
+     * @param path of the snapshot
+     * @return registry backed by the mapped file
+     * @throws IOException if mapping fails or the snapshot is corrupted
+     */
+    public RuleRegistry map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Serve lookups directly from the snapshot in {@code buffer}, starting at its current position.
+     * <p>
+     * The buffer is not copied and must not be modified afterwards.
+     *
+     * @param buffer containing the snapshot
+     * @return registry backed by the buffer
+     * @throws IOException if the snapshot is corrupted
+     */
+    public RuleRegistry wrap(ByteBuffer buffer) throws IOException {
+        ByteBuffer snapshot = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        int nodeCount = validate(snapshot);
+        int labelCount = snapshot.getInt(3 * Integer.BYTES);
+        int labelCharCount = snapshot.getInt(4 * Integer.BYTES);
+        return new RuleRegistry(new MappedRuleIndex(snapshot, nodeCount, labelCount, labelCharCount));
+    }
+
+    static int validate(ByteBuffer snapshot) throws IOException {
+        int size = snapshot.limit();
+        if (size < HEADER_SIZE + Long.BYTES || snapshot.getInt(0) != MAGIC) {
+            throw new IOException("Not a rule registry snapshot");
+        }
+
+        int formatVersion = snapshot.getInt(Integer.BYTES);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version: " + formatVersion);
+        }
+
+        int nodeCount = snapshot.getInt(2 * Integer.BYTES);
+        long expectedSize = HEADER_SIZE
+            + (3L * nodeCount + 2) * Integer.BYTES
+            + (long) snapshot.getInt(3 * Integer.BYTES) * Integer.BYTES
+            + (long) snapshot.getInt(4 * Integer.BYTES) * Character.BYTES
+            + nodeCount
+            + Long.BYTES;
+        if (size != expectedSize) {
+            throw new IOException("Corrupted snapshot, expected " + expectedSize + " bytes but found " + size);
+        }
+
+        if (checksum(snapshot, size - Long.BYTES) != snapshot.getLong(size - Long.BYTES)) {
+            throw new IOException("Corrupted snapshot, checksum mismatch");
+        }
+
+        return nodeCount;
+    }
+
+    private ArrayRuleIndex asArrayIndex(RuleRegistry registry) {
+        RuleIndex index = registry.getIndex();
+        if (index instanceof ArrayRuleIndex) {
+            return (ArrayRuleIndex) index;
+        }
+
+        return (ArrayRuleIndex) new RuleRegistryFactory().build(registry.getRules(), RuleIndexType.ARRAY_TRIE).getIndex();
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getInt();
+        }
+
+        return values;
+    }
+
+    private static long checksum(ByteBuffer snapshot, int length) {
+        CRC32 checksum = new CRC32();
+        ByteBuffer content = snapshot.duplicate();
+        byte[] chunk = new byte[8 * 1024];
+        for (int remaining = length; remaining > 0; ) {
+            int chunkLength = Math.min(chunk.length, remaining);
+            content.get(chunk, 0, chunkLength);
+            checksum.update(chunk, 0, chunkLength);
+            remaining -= chunkLength;
+        }
+
+        return checksum.getValue();
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+
+        return bytes.toByteArray();
+    }
+}
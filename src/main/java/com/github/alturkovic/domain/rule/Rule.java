@@ -28,7 +28,6 @@ import com.github.alturkovic.domain.util.DomainUtils;
 import com.github.alturkovic.domain.util.StringUtils;
 import lombok.EqualsAndHashCode;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -62,22 +61,37 @@ public class Rule {
      *
      * @param domain to match
      * @return public suffix for {@code domain}
+     * @see #matchStart(CharSequence)
      */
     public Optional<String> match(String domain) {
-        if (StringUtils.isBlank(domain)) {
+        int start = matchStart(domain);
+        if (start < 0) {
             return Optional.empty();
         }
 
-        String matchedDomain = matcher.match(domain);
-        if (StringUtils.isBlank(matchedDomain)) {
-            return Optional.empty();
+        return Optional.of(domain.substring(start, DomainUtils.lastLabelEnd(domain)));
+    }
+
+    /**
+     * Returns the start of the matched public suffix of a domain.
+     * <p>
+     * Labels are compared in place, ignoring case, so nothing is allocated. The suffix ends at
+     * {@link DomainUtils#lastLabelEnd(CharSequence)}, trailing "." are not part of it.
+     *
+     * @param domain to match
+     * @return start index of the public suffix in {@code domain}, {@code -1} if the rule does not match
+     */
+    public int matchStart(CharSequence domain) {
+        if (StringUtils.isBlank(domain)) {
+            return -1;
         }
 
-        if (!isExceptionRule()) {
-            return Optional.of(matchedDomain);
+        int start = matcher.matchStart(domain);
+        if (start < 0 || !isExceptionRule()) {
+            return start;
         }
 
-        return Optional.of(exceptionalMatch(matchedDomain));
+        return exceptionalMatchStart(domain, start);
     }
 
     /**
@@ -116,8 +130,14 @@ public class Rule {
         return pattern;
     }
 
-    private String exceptionalMatch(String match) {
-        List<String> labels = DomainUtils.splitLabels(match);
-        return DomainUtils.joinLabels(labels.subList(1, labels.size()));
+    private int exceptionalMatchStart(CharSequence domain, int start) {
+        int end = DomainUtils.lastLabelEnd(domain);
+        for (int i = start; i < end; i++) {
+            if (domain.charAt(i) == '.') {
+                return i + 1;
+            }
+        }
+
+        return -1;
     }
 }
@@ -27,32 +27,46 @@ package com.github.alturkovic.domain.rule;
 import com.github.alturkovic.domain.util.DomainUtils;
 import lombok.EqualsAndHashCode;
 
-import java.util.List;
-
 @EqualsAndHashCode(of = "pattern")
 class RuleMatcher {
     private final String pattern;
-    private final List<String> reversedLabels;
+    private final int size;
 
     RuleMatcher(String pattern) {
         this.pattern = pattern;
-        this.reversedLabels = DomainUtils.reversedDomainLabels(pattern);
+        this.size = DomainUtils.countLabels(pattern);
     }
 
-    String match(String domain) {
-        ReverseDomainMatcher reverseDomainMatcher = new ReverseDomainMatcher(domain);
-        if (reverseDomainMatcher.size() < reversedLabels.size()) {
-            return null;
+    /**
+     * Match the labels of {@code domain} against the pattern labels, right to left and ignoring case.
+     *
+     * @param domain to match, trailing "." are ignored
+     * @return start index of the matched suffix, {@code -1} if the domain does not match
+     */
+    int matchStart(CharSequence domain) {
+        int domainEnd = DomainUtils.lastLabelEnd(domain);
+        int patternEnd = DomainUtils.lastLabelEnd(pattern);
+        if (size == 0 || domainEnd == 0) {
+            return -1;
         }
 
-        for (String label : reversedLabels) {
-            LabelMatcher matcher = new LabelMatcher(label);
-            String domainLabel = reverseDomainMatcher.next();
-            if (!matcher.isMatch(domainLabel)) {
-                return null;
+        int start = domainEnd + 1;
+        int patternStart = patternEnd + 1;
+        for (int label = 0; label < size; label++) {
+            if (start == 0) {
+                return -1;
+            }
+
+            int end = start - 1;
+            patternEnd = patternStart - 1;
+            start = DomainUtils.labelStart(domain, end);
+            patternStart = DomainUtils.labelStart(pattern, patternEnd);
+            if (!labelMatches(patternStart, patternEnd, domain, start, end)) {
+                return -1;
             }
         }
-        return reverseDomainMatcher.matchedDomain();
+
+        return start;
     }
 
     String getPattern() {
@@ -60,7 +74,26 @@ class RuleMatcher {
     }
 
     int size() {
-        return reversedLabels.size();
+        return size;
+    }
+
+    private boolean labelMatches(int patternStart, int patternEnd, CharSequence domain, int start, int end) {
+        int length = patternEnd - patternStart;
+        if (length == 1 && pattern.charAt(patternStart) == '*') {
+            return true;
+        }
+
+        if (length != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (DomainUtils.toLowerCase(pattern.charAt(patternStart + i)) != DomainUtils.toLowerCase(domain.charAt(start + i))) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     @Override
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.rule;
+
+import lombok.Getter;
+
+/**
+ * Thrown or reported when a line of a rule list is not a valid rule.
+ */
+@Getter
+public class RuleParseException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final long lineNumber;
+    private final String line;
+
+    /**
+     * Create an exception for an invalid line.
+     *
+     * @param lineNumber one-based number of the line, {@code 0} if unknown
+     * @param line that is invalid
+     * @param reason why the line is invalid
+     */
+    public RuleParseException(long lineNumber, String line, String reason) {
+        super((lineNumber > 0 ? "Line " + lineNumber : "Line") + " '" + line + "': " + reason);
+        this.lineNumber = lineNumber;
+        this.line = line;
+    }
+}
@@ -24,35 +24,115 @@
 
 package com.github.alturkovic.domain.rule;
 
+import com.github.alturkovic.domain.util.LineStreams;
 import com.github.alturkovic.domain.util.StringUtils;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * The parser for the Public Suffix List rules.
+ * <p>
+ * Rule lists are always read as UTF-8. Lines that are not valid rules are passed to the error handler
+ * as {@link RuleParseException} and skipped. The default error handler logs them as warnings,
+ * use {@link #strict()} to abort the parsing on the first invalid line instead.
  */
 public class RuleParser {
+    private static final Logger LOGGER = Logger.getLogger(RuleParser.class.getName());
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Consumer<RuleParseException> errorHandler;
+
+    /**
+     * Create a parser that logs invalid lines with {@link java.util.logging} and skips them.
+     */
+    public RuleParser() {
+        this(error -> LOGGER.log(Level.WARNING, error.getMessage()));
+    }
+
+    /**
+     * Create a parser that reports invalid lines to {@code errorHandler} and continues parsing.
+     *
+     * @param errorHandler of invalid lines, may throw to abort the parsing
+     */
+    public RuleParser(Consumer<RuleParseException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Create a parser that throws {@link RuleParseException} on the first invalid line.
+     *
+     * @return strict parser
+     */
+    public static RuleParser strict() {
+        return new RuleParser(error -> {
+            throw error;
+        });
+    }
 
     /**
      * Parses all rules from a stream.
      *
-     * @param stream the stream with lines of rules
+     * @param stream the UTF-8 encoded stream with lines of rules
      * @return parsed rule list
      */
     public List<Rule> parse(InputStream stream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+        return stream(stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Parses all rules from a file, in parallel chunks.
+     *
+     * @param path of the UTF-8 encoded file with lines of rules
+     * @return parsed rule list, in file order
+     */
+    public List<Rule> parse(Path path) {
+        try (Stream<Rule> rules = stream(path)) {
+            return rules.parallel().collect(Collectors.toList());
+        }
+    }
 
-        return reader.lines()
-            .map(String::trim)
-            .map(this::parseLine)
-            .flatMap(rule -> rule.<Stream<? extends Rule>>map(Stream::of).orElseGet(Stream::empty))
-            .collect(Collectors.toList());
+    /**
+     * Lazily parse rules from a stream.
+     * <p>
+     * Closing the returned stream closes {@code stream}.
+     *
+     * @param stream the UTF-8 encoded stream with lines of rules
+     * @return lazily parsed rules
+     */
+    public Stream<Rule> stream(InputStream stream) {
+        return LineStreams.lines(new InputStreamReader(stream, StandardCharsets.UTF_8), (lineNumber, line) -> parseLine(line, lineNumber))
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Lazily parse rules from a file.
+     * <p>
+     * The returned stream can be made parallel to parse chunks of the file concurrently and must be closed to release the file.
+     *
+     * @param path of the UTF-8 encoded file with lines of rules
+     * @return lazily parsed rules
+     */
+    public Stream<Rule> stream(Path path) {
+        try {
+            return LineStreams.lines(path, (lineNumber, line) -> parseLine(line, lineNumber))
+                .filter(Objects::nonNull);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -62,32 +142,69 @@ public class RuleParser {
      * @return parsed line
      */
     public Optional<Rule> parseLine(String line) {
+        return Optional.ofNullable(parseLine(line, () -> 0));
+    }
+
+    private Rule parseLine(String line, LongSupplier lineNumber) {
         if (StringUtils.isBlank(line)) {
-            return Optional.empty();
+            return null;
         }
 
-        line = line.trim();
-
-        if (isComment(line)) {
-            return Optional.empty();
+        String pattern = firstWord(line);
+        if (pattern.isEmpty() || isComment(pattern)) {
+            return null;
         }
 
-        if (isMultiWorded(line)) {
-            line = extractFirstWord(line);
+        String error = validate(pattern);
+        if (error != null) {
+            errorHandler.accept(new RuleParseException(lineNumber.getAsLong(), line, error));
+            return null;
         }
 
-        return Optional.of(new Rule(line));
+        return new Rule(pattern);
     }
 
-    private boolean isComment(String line) {
-        return line.startsWith("//");
+    private boolean isComment(String pattern) {
+        return pattern.startsWith("//");
     }
 
-    private boolean isMultiWorded(String line) {
-        return line.contains(" ");
+    private String firstWord(String line) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && (line.charAt(start) == BYTE_ORDER_MARK || Character.isWhitespace(line.charAt(start)))) {
+            start++;
+        }
+
+        int wordEnd = start;
+        while (wordEnd < end && !Character.isWhitespace(line.charAt(wordEnd))) {
+            wordEnd++;
+        }
+
+        return line.substring(start, wordEnd);
     }
 
-    private String extractFirstWord(String line) {
-        return line.split(" ")[0];
+    private String validate(String pattern) {
+        int start = pattern.charAt(0) == Rule.EXCEPTION_TOKEN ? 1 : 0;
+        if (start == pattern.length()) {
+            return "empty exception rule";
+        }
+
+        int labelStart = start;
+        for (int i = start; i <= pattern.length(); i++) {
+            if (i < pattern.length() && pattern.charAt(i) != '.') {
+                continue;
+            }
+
+            if (i == labelStart) {
+                return "empty label";
+            }
+
+            if (i - labelStart > 1 && pattern.lastIndexOf('*', i - 1) >= labelStart) {
+                return "wildcard must be a whole label";
+            }
+            labelStart = i + 1;
+        }
+
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CharSequence} view of a byte range, each byte is one char.
+ * <p>
+ * Intended for ASCII hosts read from network buffers or log records, so they can be matched without decoding.
+ * Bytes above {@code 0x7F} are exposed as ISO-8859-1 chars, use {@link #isAscii()} and {@link #decode()}
+ * to handle UTF-8 input.
+ * <p>
+ * The bytes are not copied, changes to the underlying bytes are visible in the view.
+ */
+public final class AsciiCharSequence implements CharSequence {
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private AsciiCharSequence(byte[] array, ByteBuffer buffer, int offset, int length) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * View of {@code length} bytes of {@code bytes} starting at {@code offset}.
+     *
+     * @param bytes to view
+     * @param offset of the first byte
+     * @param length number of bytes
+     * @return view of the bytes
+     * @throws IndexOutOfBoundsException if the range is not within {@code bytes}
+     */
+    public static AsciiCharSequence of(byte[] bytes, int offset, int length) {
+        checkRange(offset, length, bytes.length);
+        return new AsciiCharSequence(bytes, null, offset, length);
+    }
+
+    /**
+     * View of the remaining bytes of {@code buffer}, its position is not changed.
+     *
+     * @param buffer to view
+     * @return view of the bytes between position and limit
+     */
+    public static AsciiCharSequence of(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new AsciiCharSequence(buffer.array(), null, buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+
+        return new AsciiCharSequence(null, buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Checks if all viewed bytes are ASCII.
+     *
+     * @return {@code true} if chars and bytes are equivalent
+     */
+    public boolean isAscii() {
+        for (int i = 0; i < length; i++) {
+            if ((byteAt(i) & 0x80) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes the viewed bytes as UTF-8.
+     *
+     * @return decoded string
+     */
+    public String decode() {
+        return new String(toBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end - start, length);
+        return new AsciiCharSequence(array, buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(toBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    private byte byteAt(int index) {
+        return array != null ? array[offset + index] : buffer.get(offset + index);
+    }
+
+    private byte[] toBytes() {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = byteAt(i);
+        }
+
+        return bytes;
+    }
+
+    private static void checkRange(int offset, int length, int size) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + size);
+        }
+    }
+}
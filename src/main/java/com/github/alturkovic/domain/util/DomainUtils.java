@@ -31,6 +31,7 @@ import java.util.*;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class DomainUtils {
+    private static final String ACE_PREFIX = "xn--";
 
     /**
      * Splits a pattern into its labels.
@@ -63,6 +64,161 @@ public final class DomainUtils {
         return reversedLabels;
     }
 
+    /**
+     * Counts the labels of a pattern.
+     * <p>
+     * Counting is consistent with {@link #splitLabels(String)}.
+     *
+     * @param pattern to count labels of
+     * @return label count
+     */
+    public static int countLabels(String pattern) {
+        if (StringUtils.isBlank(pattern)) {
+            return 0;
+        }
+
+        int end = lastLabelEnd(pattern);
+        int count = end == 0 ? 0 : 1;
+        for (int i = 0; i < end; i++) {
+            if (pattern.charAt(i) == '.') {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Finds the end of the last label in a domain.
+     * <p>
+     * Trailing "." are ignored, same as in {@link #splitLabels(String)}.
+     *
+     * @param domain to search
+     * @return exclusive end index of the last label, {@code 0} if there are no labels
+     */
+    public static int lastLabelEnd(CharSequence domain) {
+        int end = domain.length();
+        while (end > 0 && domain.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        return end;
+    }
+
+    /**
+     * Finds the start of the label that ends at {@code end}.
+     * <p>
+     * The preceding label, if any, ends at {@code labelStart - 1}.
+     *
+     * @param domain to search
+     * @param end exclusive end index of the label
+     * @return inclusive start index of the label
+     */
+    public static int labelStart(CharSequence domain, int end) {
+        int start = end;
+        while (start > 0 && domain.charAt(start - 1) != '.') {
+            start--;
+        }
+
+        return start;
+    }
+
+    /**
+     * Finds the start of the last {@code labels} labels in a domain.
+     * <p>
+     * Trailing "." are ignored, same as in {@link #lastLabelEnd(CharSequence)}.
+     *
+     * @param domain to search
+     * @param labels number of labels to include
+     * @return inclusive start index, {@code -1} if the domain has fewer labels
+     */
+    public static int suffixStart(CharSequence domain, int labels) {
+        int end = lastLabelEnd(domain);
+        if (labels <= 0 || end == 0) {
+            return -1;
+        }
+
+        int start = labelStart(domain, end);
+        for (int label = 1; label < labels; label++) {
+            if (start == 0) {
+                return -1;
+            }
+            start = labelStart(domain, start - 1);
+        }
+
+        return start;
+    }
+
+    /**
+     * Checks if any label of a domain is Punycode encoded, starting with "xn--" in any case.
+     *
+     * @param domain to check
+     * @return {@code true} if the domain needs decoding before matching
+     */
+    public static boolean containsAceLabel(CharSequence domain) {
+        int length = domain.length();
+        for (int start = 0; start + ACE_PREFIX.length() <= length; start++) {
+            if ((start == 0 || domain.charAt(start - 1) == '.') && startsWithAcePrefix(domain, start)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a domain has a Unicode or Punycode label.
+     *
+     * @param domain to check
+     * @return {@code true} if the domain is an internationalized domain name
+     */
+    public static boolean isInternationalized(CharSequence domain) {
+        for (int i = 0; i < domain.length(); i++) {
+            if (domain.charAt(i) >= 0x80) {
+                return true;
+            }
+        }
+
+        return containsAceLabel(domain);
+    }
+
+    /**
+     * Lower cases a single char independently of the default locale.
+     *
+     * @param c to lower case
+     * @return lower case char
+     */
+    public static char toLowerCase(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Lower cases a string one char at a time, independently of the default locale.
+     * <p>
+     * Consistent with {@link #toLowerCase(char)}, so the result can be compared to folded chars of a domain.
+     *
+     * @param value to lower case
+     * @return lower case string, {@code value} itself if it is already lower case
+     */
+    public static String toLowerCase(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (toLowerCase(c) != c) {
+                char[] chars = value.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = toLowerCase(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+
+        return value;
+    }
+
     /**
      * Joins labels to a pattern.
      * <p>
@@ -79,6 +235,16 @@ public final class DomainUtils {
         return String.join(".", labels);
     }
 
+    private static boolean startsWithAcePrefix(CharSequence domain, int start) {
+        for (int i = 0; i < ACE_PREFIX.length(); i++) {
+            if (toLowerCase(domain.charAt(start + i)) != ACE_PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private static boolean areAllElementsBlank(Collection<String> labels) {
         return labels.stream().allMatch(StringUtils::isBlank);
     }
@@ -0,0 +1,474 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy streams of lines that split well for parallel processing.
+ * <p>
+ * Lines are read on demand, so the input is never held in memory as a whole.
+ * Lines are terminated by {@code \n} or {@code \r\n}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LineStreams {
+    private static final int MIN_SPLIT_BYTES = 64 * 1024;
+    private static final int READ_BUFFER_BYTES = 16 * 1024;
+    private static final int READER_BATCH_LINES = 1024;
+
+    /**
+     * Stream lines of a UTF-8 encoded file.
+     * <p>
+     * Parallel streams split the file into byte ranges that are read independently.
+     * The returned stream must be closed to release the file.
+     *
+     * @param path of the file
+     * @return lazily read lines
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<String> lines(Path path) throws IOException {
+        return lines(path, (lineNumber, line) -> line);
+    }
+
+    /**
+     * Stream lines of a UTF-8 encoded file mapped together with their line number.
+     * <p>
+     * Every chunk of a parallel stream counts the lines it reads. The lines before a chunk are only counted
+     * the first time one of its line numbers is requested, reading every byte of the file at most once more.
+     * The {@code mapper} may return {@code null}, the returned stream must be closed to release the file.
+     *
+     * @param path of the file
+     * @param mapper of the line number and the line
+     * @param <T> type of the mapped lines
+     * @return lazily read and mapped lines
+     * @throws IOException if the file cannot be opened
+     */
+    public static <T> Stream<T> lines(Path path, LineMapper<T> mapper) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            FileLineSpliterator<T> spliterator = new FileLineSpliterator<>(new LineIndex(channel, size), 0, size, mapper);
+            spliterator.linesBefore = 0;
+            return StreamSupport.stream(spliterator, false).onClose(() -> close(channel));
+        } catch (IOException | RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Stream lines of {@code reader}.
+     * <p>
+     * Parallel streams split off fixed-size batches of lines, so at most a few batches are held in memory.
+     * The lines of a batch are mapped by the thread that processes the batch, not by the one that reads it.
+     * Closing the returned stream closes the {@code reader}.
+     *
+     * @param reader to read lines from
+     * @return lazily read lines
+     */
+    public static Stream<String> lines(Reader reader) {
+        return lines(reader, (lineNumber, line) -> line);
+    }
+
+    /**
+     * Stream lines of {@code reader} mapped together with their line number.
+     * <p>
+     * The {@code mapper} may return {@code null}, closing the returned stream closes the {@code reader}.
+     *
+     * @param reader to read lines from
+     * @param mapper of the line number and the line
+     * @param <T> type of the mapped lines
+     * @return lazily read and mapped lines
+     */
+    public static <T> Stream<T> lines(Reader reader, LineMapper<T> mapper) {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return StreamSupport.stream(new ReaderLineSpliterator<>(bufferedReader, mapper), false).onClose(() -> close(bufferedReader));
+    }
+
+    private static void close(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads lines starting in the byte range {@code [position, end)}.
+     * <p>
+     * A line belongs to the range in which its first byte is, so a range that does not start
+     * at a line start skips the partial line first. Line numbers are counted from the first line read,
+     * the lines before it are looked up in the {@link LineIndex} when a line number is first requested.
+     */
+    private static final class FileLineSpliterator<T> implements Spliterator<T>, LongSupplier {
+        private final LineIndex lineIndex;
+        private final FileChannel channel;
+        private final LineMapper<T> mapper;
+        private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+        private long bufferPosition;
+        private int bufferLength;
+        private long position;
+        private long end;
+        private boolean aligned;
+        private byte[] line = new byte[256];
+        private long firstLineStart = -1;
+        private long linesBefore = -1;
+        private long linesRead;
+
+        private FileLineSpliterator(LineIndex lineIndex, long position, long end, LineMapper<T> mapper) {
+            this.lineIndex = lineIndex;
+            this.channel = lineIndex.channel;
+            this.mapper = mapper;
+            this.position = position;
+            this.end = end;
+            this.aligned = position == 0;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!aligned) {
+                align();
+            }
+
+            if (position >= end) {
+                return false;
+            }
+
+            if (firstLineStart < 0) {
+                firstLineStart = position;
+            }
+
+            int length = 0;
+            for (int next = read(); next != -1 && next != '\n'; next = read()) {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = (byte) next;
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+
+            linesRead++;
+            action.accept(mapper.map(this, new String(line, 0, length, StandardCharsets.UTF_8)));
+            return true;
+        }
+
+        @Override
+        public long getAsLong() {
+            if (linesBefore < 0) {
+                linesBefore = lineIndex.linesBefore(firstLineStart);
+            }
+
+            return linesBefore + linesRead;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            long remaining = end - position;
+            if (remaining < 2L * MIN_SPLIT_BYTES) {
+                return null;
+            }
+
+            long middle = position + remaining / 2;
+            FileLineSpliterator<T> prefix = new FileLineSpliterator<>(lineIndex, position, middle, mapper);
+            prefix.aligned = aligned;
+            if (linesBefore >= 0 && aligned) {
+                prefix.linesBefore = linesBefore + linesRead;
+            }
+
+            position = middle;
+            aligned = false;
+            firstLineStart = -1;
+            linesBefore = -1;
+            linesRead = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(0, end - position);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+
+        private void align() {
+            aligned = true;
+            position--;
+            for (int next = read(); next != -1 && next != '\n'; next = read()) {
+                if (position > end) {
+                    return;
+                }
+            }
+        }
+
+        private int read() {
+            int index = (int) (position - bufferPosition);
+            if (index < 0 || index >= bufferLength) {
+                if (!fill()) {
+                    return -1;
+                }
+                index = 0;
+            }
+
+            position++;
+            return buffer[index] & 0xFF;
+        }
+
+        private boolean fill() {
+            try {
+                ByteBuffer target = ByteBuffer.wrap(buffer);
+                bufferPosition = position;
+                bufferLength = Math.max(0, channel.read(target, position));
+                return bufferLength > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Newline counts of fixed-size blocks of a file, each block is counted at most once.
+     */
+    private static final class LineIndex {
+        private static final int BLOCK_BYTES = 64 * 1024;
+
+        private final FileChannel channel;
+        private final long size;
+        private final AtomicLongArray blockNewlines;
+
+        private LineIndex(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+            this.blockNewlines = new AtomicLongArray((int) ((size + BLOCK_BYTES - 1) / BLOCK_BYTES));
+        }
+
+        private long linesBefore(long offset) {
+            int block = (int) (offset / BLOCK_BYTES);
+            long lines = 0;
+            for (int i = 0; i < block; i++) {
+                lines += blockNewlines(i);
+            }
+
+            return lines + countNewlines((long) block * BLOCK_BYTES, offset);
+        }
+
+        private long blockNewlines(int block) {
+            // stored incremented by one, so that zero means not counted yet
+            long count = blockNewlines.get(block) - 1;
+            if (count < 0) {
+                long start = (long) block * BLOCK_BYTES;
+                count = countNewlines(start, Math.min(start + BLOCK_BYTES, size));
+                blockNewlines.set(block, count + 1);
+            }
+
+            return count;
+        }
+
+        private long countNewlines(long from, long to) {
+            byte[] buffer = new byte[READ_BUFFER_BYTES];
+            long count = 0;
+            long position = from;
+            try {
+                while (position < to) {
+                    int read = channel.read(ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, to - position)), position);
+                    if (read <= 0) {
+                        break;
+                    }
+
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            count++;
+                        }
+                    }
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return count;
+        }
+    }
+
+    private static final class ReaderLineSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements LongSupplier {
+        private final BufferedReader reader;
+        private final LineMapper<T> mapper;
+        private long lineNumber;
+
+        private ReaderLineSpliterator(BufferedReader reader, LineMapper<T> mapper) {
+            super(Long.MAX_VALUE, ORDERED);
+            this.reader = reader;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            String line = readLine();
+            if (line == null) {
+                return false;
+            }
+
+            lineNumber++;
+            action.accept(mapper.map(this, line));
+            return true;
+        }
+
+        @Override
+        public long getAsLong() {
+            return lineNumber;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            String[] batch = new String[READER_BATCH_LINES];
+            long firstLineNumber = lineNumber + 1;
+            int size = 0;
+            for (String line = readLine(); line != null; line = size < batch.length ? readLine() : null) {
+                lineNumber++;
+                batch[size++] = line;
+            }
+
+            if (size == 0) {
+                return null;
+            }
+
+            return new LineBatchSpliterator<>(batch, 0, size, firstLineNumber, mapper);
+        }
+
+        private String readLine() {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Maps a batch of lines that were read ahead, on the thread that consumes them.
+     * <p>
+     * Splits in halves, so the mapping of a single batch can still be spread over several threads.
+     */
+    private static final class LineBatchSpliterator<T> implements Spliterator<T>, LongSupplier {
+        private final String[] lines;
+        private final long firstLineNumber;
+        private final LineMapper<T> mapper;
+        private final int end;
+        private int index;
+
+        private LineBatchSpliterator(String[] lines, int index, int end, long firstLineNumber, LineMapper<T> mapper) {
+            this.lines = lines;
+            this.index = index;
+            this.end = end;
+            this.firstLineNumber = firstLineNumber;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index == end) {
+                return false;
+            }
+
+            T mapped = mapper.map(this, lines[index]);
+            index++;
+            action.accept(mapped);
+            return true;
+        }
+
+        @Override
+        public long getAsLong() {
+            return firstLineNumber + index;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+
+            Spliterator<T> prefix = new LineBatchSpliterator<>(lines, index, middle, firstLineNumber, mapper);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Maps a line together with its line number.
+     *
+     * @param <T> type of the mapped line
+     */
+    @FunctionalInterface
+    public interface LineMapper<T> {
+
+        /**
+         * Map a line.
+         * <p>
+         * The line number is only valid during this call, get it only when needed as it may have to be counted first.
+         *
+         * @param lineNumber supplies the one-based number of the line
+         * @param line without the line terminator
+         * @return mapped line, may be {@code null}
+         */
+        T map(LongSupplier lineNumber, String line);
+    }
+}
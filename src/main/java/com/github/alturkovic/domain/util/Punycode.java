@@ -0,0 +1,353 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Stateless and thread-safe Punycode conversion of domain names.
+ * <p>
+ * Labels are converted one by one as specified by <a href="https://tools.ietf.org/html/rfc3492">RFC 3492</a>,
+ * labels that need no conversion are copied as is. Domains without any label to convert are returned
+ * unchanged without allocating.
+ * <p>
+ * Unlike {@link java.net.IDN}, only "." is recognized as a label separator. Labels are mapped like the IDNA2003
+ * nameprep profile used by {@link java.net.IDN#toASCII(String)} for the characters that commonly differ:
+ * final sigma is mapped to sigma, sharp s to "ss" and characters such as the soft hyphen or zero width joiners are removed.
+ * Other than that, labels are only lower cased and NFKC normalized, so rare full case foldings such as Greek capitals
+ * with prosgegrammeni are not applied and characters unassigned in Unicode 3.2 are encoded instead of rejected.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Punycode {
+    private static final String ACE_PREFIX = "xn--";
+
+    private static final int BASE = 36;
+    private static final int T_MIN = 1;
+    private static final int T_MAX = 26;
+    private static final int SKEW = 38;
+    private static final int DAMP = 700;
+    private static final int INITIAL_BIAS = 72;
+    private static final int INITIAL_N = 0x80;
+    private static final char DELIMITER = '-';
+    private static final char FINAL_SIGMA = '\u03C2';
+    private static final char SIGMA = '\u03C3';
+    private static final char SHARP_S = '\u00DF';
+
+    /**
+     * Decodes all Punycode labels of a domain.
+     * <p>
+     * Labels that are not valid Punycode are kept as is, as are labels that decode to control characters
+     * or that {@link #toAscii(String)} would not encode back to the same label, ignoring case.
+     *
+     * @param domain to decode
+     * @return decoded domain, the same instance if no label starts with "xn--"
+     */
+    public static String toUnicode(String domain) {
+        if (domain == null || !DomainUtils.containsAceLabel(domain)) {
+            return domain;
+        }
+
+        StringBuilder unicode = new StringBuilder(domain.length());
+        int start = 0;
+        while (true) {
+            int end = labelEnd(domain, start);
+            String label = isAceLabel(domain, start, end) ? decodeAceLabel(domain, start, end) : null;
+            if (label == null) {
+                unicode.append(domain, start, end);
+            } else {
+                unicode.append(label);
+            }
+
+            if (end == domain.length()) {
+                return unicode.toString();
+            }
+
+            unicode.append('.');
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Encodes all non-ASCII labels of a domain to Punycode.
+     * <p>
+     * Encoded labels are mapped, lower cased and NFKC normalized first, labels that become ASCII are not encoded.
+     *
+     * @param domain to encode
+     * @return encoded domain, the same instance if it is ASCII
+     * @throws IllegalArgumentException if a label cannot be encoded
+     */
+    public static String toAscii(String domain) {
+        if (domain == null || isAscii(domain, 0, domain.length())) {
+            return domain;
+        }
+
+        StringBuilder ascii = new StringBuilder(domain.length() + ACE_PREFIX.length());
+        int start = 0;
+        while (true) {
+            int end = labelEnd(domain, start);
+            if (isAscii(domain, start, end)) {
+                ascii.append(domain, start, end);
+            } else {
+                String label = prepareLabel(domain.substring(start, end));
+                if (isAscii(label, 0, label.length())) {
+                    ascii.append(label);
+                } else {
+                    ascii.append(ACE_PREFIX);
+                    encodeLabel(label, ascii);
+                }
+            }
+
+            if (end == domain.length()) {
+                return ascii.toString();
+            }
+
+            ascii.append('.');
+            start = end + 1;
+        }
+    }
+
+    private static String prepareLabel(String label) {
+        String lowerCase = label.toLowerCase(Locale.ROOT);
+        StringBuilder mapped = new StringBuilder(lowerCase.length());
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+            if (c == FINAL_SIGMA) {
+                mapped.append(SIGMA);
+            } else if (c == SHARP_S) {
+                mapped.append("ss");
+            } else if (!isMappedToNothing(c)) {
+                mapped.append(c);
+            }
+        }
+
+        return Normalizer.normalize(mapped, Normalizer.Form.NFKC);
+    }
+
+    /**
+     * Characters mapped to nothing by <a href="https://tools.ietf.org/html/rfc3454#appendix-B.1">RFC 3454 B.1</a>.
+     */
+    private static boolean isMappedToNothing(char c) {
+        return c == '\u00AD' || c == '\u034F' || c == '\u1806' || (c >= '\u180B' && c <= '\u180D')
+            || (c >= '\u200B' && c <= '\u200D') || c == '\u2060' || (c >= '\uFE00' && c <= '\uFE0F') || c == '\uFEFF';
+    }
+
+    private static String decodeAceLabel(String domain, int start, int end) {
+        String label = decodeLabel(domain, start + ACE_PREFIX.length(), end);
+        if (label == null || label.codePoints().anyMatch(Character::isISOControl)) {
+            return null;
+        }
+
+        String prepared = prepareLabel(label);
+        if (isAscii(prepared, 0, prepared.length())) {
+            return null;
+        }
+
+        StringBuilder encoded = new StringBuilder(end - start).append(ACE_PREFIX);
+        encodeLabel(prepared, encoded);
+        return encoded.length() == end - start && domain.regionMatches(true, start, encoded.toString(), 0, encoded.length()) ? label : null;
+    }
+
+    private static String decodeLabel(String input, int start, int end) {
+        int delimiter = input.lastIndexOf(DELIMITER, end - 1);
+        int basicEnd = delimiter >= start ? delimiter : start;
+
+        int[] output = new int[end - start];
+        int length = 0;
+        for (int i = start; i < basicEnd; i++) {
+            char c = input.charAt(i);
+            if (c >= INITIAL_N) {
+                return null;
+            }
+            output[length++] = c;
+        }
+
+        int n = INITIAL_N;
+        int i = 0;
+        int bias = INITIAL_BIAS;
+        boolean nonBasic = false;
+        for (int in = basicEnd > start ? basicEnd + 1 : start; in < end; ) {
+            int oldI = i;
+            int w = 1;
+            for (int k = BASE; ; k += BASE) {
+                if (in == end) {
+                    return null;
+                }
+
+                int digit = decodeDigit(input.charAt(in++));
+                if (digit < 0 || digit > (Integer.MAX_VALUE - i) / w) {
+                    return null;
+                }
+
+                i += digit * w;
+                int t = threshold(k, bias);
+                if (digit < t) {
+                    break;
+                }
+
+                if (w > Integer.MAX_VALUE / (BASE - t)) {
+                    return null;
+                }
+                w *= BASE - t;
+            }
+
+            bias = adapt(i - oldI, length + 1, oldI == 0);
+            if (i / (length + 1) > Integer.MAX_VALUE - n) {
+                return null;
+            }
+
+            n += i / (length + 1);
+            i %= length + 1;
+            if (n < INITIAL_N || n > Character.MAX_CODE_POINT || length == output.length) {
+                return null;
+            }
+
+            System.arraycopy(output, i, output, i + 1, length - i);
+            output[i++] = n;
+            length++;
+            nonBasic = true;
+        }
+
+        return nonBasic ? new String(output, 0, length) : null;
+    }
+
+    private static void encodeLabel(String label, StringBuilder output) {
+        int[] codePoints = label.codePoints().toArray();
+
+        int basicCount = 0;
+        for (int codePoint : codePoints) {
+            if (codePoint < INITIAL_N) {
+                output.append((char) codePoint);
+                basicCount++;
+            }
+        }
+
+        if (basicCount > 0) {
+            output.append(DELIMITER);
+        }
+
+        int n = INITIAL_N;
+        int delta = 0;
+        int bias = INITIAL_BIAS;
+        for (int handled = basicCount; handled < codePoints.length; delta++, n++) {
+            int m = Integer.MAX_VALUE;
+            for (int codePoint : codePoints) {
+                if (codePoint >= n && codePoint < m) {
+                    m = codePoint;
+                }
+            }
+
+            if (m - n > (Integer.MAX_VALUE - delta) / (handled + 1)) {
+                throw new IllegalArgumentException("Label is too long to encode: " + label);
+            }
+
+            delta += (m - n) * (handled + 1);
+            n = m;
+            for (int codePoint : codePoints) {
+                if (codePoint < n && ++delta == Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Label is too long to encode: " + label);
+                }
+
+                if (codePoint == n) {
+                    int q = delta;
+                    for (int k = BASE; ; k += BASE) {
+                        int t = threshold(k, bias);
+                        if (q < t) {
+                            break;
+                        }
+                        output.append(encodeDigit(t + (q - t) % (BASE - t)));
+                        q = (q - t) / (BASE - t);
+                    }
+
+                    output.append(encodeDigit(q));
+                    bias = adapt(delta, handled + 1, handled == basicCount);
+                    delta = 0;
+                    handled++;
+                }
+            }
+        }
+    }
+
+    private static int adapt(int delta, int points, boolean first) {
+        delta = first ? delta / DAMP : delta / 2;
+        delta += delta / points;
+
+        int k = 0;
+        while (delta > ((BASE - T_MIN) * T_MAX) / 2) {
+            delta /= BASE - T_MIN;
+            k += BASE;
+        }
+
+        return k + (BASE - T_MIN + 1) * delta / (delta + SKEW);
+    }
+
+    private static int threshold(int k, int bias) {
+        if (k <= bias) {
+            return T_MIN;
+        }
+
+        return Math.min(k - bias, T_MAX);
+    }
+
+    private static int decodeDigit(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 26;
+        }
+
+        return -1;
+    }
+
+    private static char encodeDigit(int digit) {
+        return (char) (digit < 26 ? 'a' + digit : '0' + digit - 26);
+    }
+
+    private static boolean isAceLabel(String domain, int start, int end) {
+        return end - start > ACE_PREFIX.length() && domain.regionMatches(true, start, ACE_PREFIX, 0, ACE_PREFIX.length());
+    }
+
+    private static boolean isAscii(String domain, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (domain.charAt(i) >= INITIAL_N) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int labelEnd(String domain, int start) {
+        int end = domain.indexOf('.', start);
+        return end < 0 ? domain.length() : end;
+    }
+}
@@ -24,8 +24,6 @@
 
 package com.github.alturkovic.domain.util;
 
-import java.net.IDN;
-
 /**
  * Automatic Punycode Codec.
  * <p>
@@ -33,7 +31,7 @@ import java.net.IDN;
  * <p>
  * The {@link PunycodeCodec#recode(String)} method will return the same format as the original input was.
  *
- * @implNote This codec is stateful and not thread-safe.
+ * @implNote This codec is stateful and not thread-safe, use {@link Punycode} for stateless conversion.
  */
 public class PunycodeCodec {
     private boolean decoded;
@@ -45,9 +43,9 @@ public class PunycodeCodec {
      * @return UTF-8 domain name
      */
     public String decode(String domain) {
-        String asciiDomain = IDN.toUnicode(domain);
-        decoded = !asciiDomain.equals(domain);
-        return asciiDomain;
+        String unicodeDomain = Punycode.toUnicode(domain);
+        decoded = !unicodeDomain.equals(domain);
+        return unicodeDomain;
     }
 
     /**
@@ -60,7 +58,7 @@ public class PunycodeCodec {
      */
     public String recode(String domain) {
         if (decoded) {
-            return IDN.toASCII(domain);
+            return Punycode.toAscii(domain);
         }
 
         return domain;
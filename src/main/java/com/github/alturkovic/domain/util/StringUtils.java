@@ -32,4 +32,18 @@ public final class StringUtils {
     public static boolean isBlank(String text) {
         return text == null || text.trim().isEmpty();
     }
+
+    public static boolean isBlank(CharSequence text) {
+        if (text == null) {
+            return true;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
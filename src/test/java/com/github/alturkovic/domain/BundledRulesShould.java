@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import com.github.alturkovic.domain.rule.RuleParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BundledRulesShould {
+
+    @Test
+    void buildRegistryFromBundledRules() {
+        DomainRegistry registry = new DomainRegistryBuilder()
+            .withBundledRules()
+            .build();
+
+        assertThat(registry.getPublicSuffix("alturkovic.blogspot.com")).contains("blogspot.com");
+        assertThat(registry.getRegistrableName("en.wikipedia.org")).contains("wikipedia");
+        assertThat(registry.getPublicSuffix("alturkovic.invalid")).isEmpty();
+    }
+
+    @Test
+    void reportBundledVersion() {
+        assertThat(BundledRules.getVersion()).isEqualTo("2024-10-17_15-16-23_UTC");
+        assertThat(BundledRules.getRuleCount()).isGreaterThan(0);
+    }
+
+    @Test
+    void generateRulesWithListVersion(@TempDir Path directory) throws IOException {
+        Path list = directory.resolve("list.dat");
+        Files.write(list, Arrays.asList("// header", "// VERSION: 2021-06-01_00-00-00_UTC", "", "com", "*.ck", "!www.ck"), StandardCharsets.UTF_8);
+
+        BundledRulesGenerator.generate(list, directory, "");
+
+        Path generated = directory.resolve("com/github/alturkovic/domain");
+        assertThat(generated.resolve(BundledRules.SNAPSHOT_RESOURCE)).exists();
+        assertThat(generated.resolve(BundledRules.PROPERTIES_RESOURCE)).hasContent("version=2021-06-01_00-00-00_UTC\nrules=3");
+    }
+
+    @Test
+    void generateRulesWithGivenVersion(@TempDir Path directory) throws IOException {
+        Path list = directory.resolve("list.dat");
+        Files.write(list, Arrays.asList("// VERSION: 2021-06-01_00-00-00_UTC", "com"), StandardCharsets.UTF_8);
+
+        BundledRulesGenerator.generate(list, directory, "2024-10-17_15-16-23_UTC");
+
+        assertThat(directory.resolve("com/github/alturkovic/domain").resolve(BundledRules.PROPERTIES_RESOURCE))
+            .hasContent("version=2024-10-17_15-16-23_UTC\nrules=1");
+    }
+
+    @Test
+    void failOnInvalidLineWhenGenerating(@TempDir Path directory) throws IOException {
+        Path list = directory.resolve("list.dat");
+        Files.write(list, Arrays.asList("com", "a..b", "org"), StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> BundledRulesGenerator.generate(list, directory, "test"))
+            .isInstanceOf(RuleParseException.class)
+            .hasMessageContaining("Line 2");
+        assertThat(directory.resolve("com/github/alturkovic/domain").resolve(BundledRules.PROPERTIES_RESOURCE)).doesNotExist();
+    }
+
+    @Test
+    void useDigestAsVersionWithoutHeader(@TempDir Path directory) throws IOException {
+        Path list = directory.resolve("list.dat");
+        Files.write(list, "com\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(BundledRulesGenerator.versionOf(list)).isEqualTo("sha256:03b795529d1bb07b5b27bbc3e1ffc9bbbf7f9832688d4f5d7840faf8b57dfecd");
+    }
+}
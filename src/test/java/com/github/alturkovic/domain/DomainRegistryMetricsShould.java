@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainRegistryMetricsShould {
+
+    @Test
+    void countLookups() {
+        DomainRegistryMetrics metrics = new DomainRegistryMetrics();
+
+        metrics.onLookup(true, false);
+        metrics.onLookup(true, true);
+        metrics.onLookup(false, false);
+
+        assertThat(metrics.getLookupCount()).isEqualTo(3);
+        assertThat(metrics.getMatchedCount()).isEqualTo(2);
+        assertThat(metrics.getUnmatchedCount()).isEqualTo(1);
+        assertThat(metrics.getInternationalizedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketLatenciesByPowerOfTwo() {
+        DomainRegistryMetrics metrics = new DomainRegistryMetrics();
+
+        metrics.onLookupLatency(0);
+        metrics.onLookupLatency(1);
+        metrics.onLookupLatency(2);
+        metrics.onLookupLatency(3);
+        metrics.onLookupLatency(1024);
+        metrics.onLookupLatency(Long.MAX_VALUE);
+
+        long[] histogram = metrics.getLatencyHistogram();
+        assertThat(histogram[0]).isEqualTo(2);
+        assertThat(histogram[1]).isEqualTo(2);
+        assertThat(histogram[10]).isEqualTo(1);
+        assertThat(histogram[62]).isEqualTo(1);
+    }
+
+    @Test
+    void keepLastBuild() {
+        DomainRegistryMetrics metrics = new DomainRegistryMetrics();
+
+        metrics.onBuild(10, Duration.ofMillis(5), Duration.ofMillis(20));
+
+        assertThat(metrics.getRuleCount()).isEqualTo(10);
+        assertThat(metrics.getLoadDuration()).isEqualTo(Duration.ofMillis(5));
+        assertThat(metrics.getBuildDuration()).isEqualTo(Duration.ofMillis(20));
+    }
+}
@@ -24,23 +24,35 @@
 
 package com.github.alturkovic.domain;
 
+import com.github.alturkovic.domain.registry.RuleHits;
+import com.github.alturkovic.domain.registry.RuleIndexType;
+import com.github.alturkovic.domain.registry.RuleProfiler;
+import com.github.alturkovic.domain.registry.RuleRegistryFactory;
+import com.github.alturkovic.domain.registry.RuleRegistrySnapshot;
+import com.github.alturkovic.domain.rule.Rule;
 import lombok.Builder;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static java.util.Optional.ofNullable;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class DomainRegistryShould {
 
-    private final DomainRegistry registry = new DomainRegistryBuilder()
-        .withRule("com")
-        .withRule("blogspot.com")
-        .withRule("blogspot.com.co")
-        .withRule("*.ck")
-        .withRule("!www.ck")
-        .withRule("个人.hk")
-        .withRule("com.cn")
-        .build();
+    private final DomainRegistry registry = buildRegistry(RuleIndexType.NODE_TRIE);
+    private final DomainRegistry arrayRegistry = buildRegistry(RuleIndexType.ARRAY_TRIE);
+    private final DomainView view = new DomainView();
 
     @Test
     void extractFromRules() {
@@ -160,6 +172,167 @@ class DomainRegistryShould {
             .build());
     }
 
+    @Test
+    void extractWithRepeatedLabels() {
+        validateDomainRegistryForDomain(DomainTestCase.builder()
+            .originalDomain("test.sub.test.com")
+            .withoutSubDomain("test.com")
+            .subDomain("test.sub")
+            .registrableName("test")
+            .publicSuffix("com")
+            .build());
+    }
+
+    @Test
+    void extractWithTrailingDot() {
+        validateDomainRegistryForDomain(DomainTestCase.builder()
+            .originalDomain("sub.test.com.")
+            .withoutSubDomain("test.com.")
+            .subDomain("sub")
+            .registrableName("test")
+            .publicSuffix("com")
+            .build());
+    }
+
+    @Test
+    void parseBatchInOrder() {
+        DomainRegistry batchRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withRule("*.ck")
+            .withBatchThreshold(2)
+            .build();
+
+        List<String> domains = Arrays.asList("a.com", "b.pub.ck", "test.invalid", "a.com", "c.d.com", "b.pub.ck", "e.com");
+        List<DomainParts> parts = batchRegistry.parseAll(domains);
+
+        assertThat(parts).extracting(DomainParts::getDomain).containsExactlyElementsOf(domains);
+        assertThat(parts).extracting(DomainParts::getRegistrableName).containsExactly(
+            ofNullable("a"), ofNullable("b"), ofNullable(null), ofNullable("a"), ofNullable("d"), ofNullable("b"), ofNullable("e"));
+        assertThat(parts.get(3)).isSameAs(parts.get(0));
+    }
+
+    @Test
+    void parseStreamLazily() {
+        List<String> domains = Arrays.asList("a.com", "test.invalid", "c.d.com");
+
+        assertThat(registry.parse(domains.stream()).parallel().map(DomainParts::getRegistrableName).collect(Collectors.toList()))
+            .containsExactly(ofNullable("a"), ofNullable(null), ofNullable("d"));
+
+        try (Stream<DomainParts> parts = registry.parseLines(new StringReader("a.com\r\ntest.invalid\nc.d.com"))) {
+            assertThat(parts.map(DomainParts::getDomain).collect(Collectors.toList())).containsExactlyElementsOf(domains);
+        }
+    }
+
+    @Test
+    void cacheParseResults() {
+        DomainRegistry cachedRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withCache(100)
+            .build();
+
+        DomainParts parts = cachedRegistry.parse("sub.test.com");
+
+        assertThat(cachedRegistry.parse("sub.test.com")).isSameAs(parts);
+        assertThat(cachedRegistry.getRegistrableName("sub.test.com")).contains("test");
+        assertThat(cachedRegistry.getCacheStats()).contains(new CacheStats(2, 1, 0, 1));
+        assertThat(registry.getCacheStats()).isEmpty();
+    }
+
+    @Test
+    void rejectUnknownTopLevelDomainsBeforeCaching() {
+        DomainRegistry cachedRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withCache(100)
+            .withThreadLocalCache(16)
+            .build();
+
+        assertThat(cachedRegistry.getPublicSuffix("alturkovic.invalid")).isEmpty();
+        assertThat(cachedRegistry.parse("alturkovic.invalid").getDomain()).isEqualTo("alturkovic.invalid");
+        assertThat(cachedRegistry.indexOfPublicSuffix("printer.local")).isEqualTo(-1);
+        assertThat(cachedRegistry.getCacheStats()).contains(new CacheStats(0, 0, 0, 0));
+    }
+
+    @Test
+    void countRejectedTopLevelDomainsAsUnmatchedWhenProfiling() {
+        DomainRegistry profiledRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withCache(100)
+            .withRuleProfiling()
+            .build();
+
+        profiledRegistry.parse("alturkovic.invalid");
+        profiledRegistry.indexOfPublicSuffix("printer.local");
+        profiledRegistry.parse("test.com");
+
+        assertThat(profiledRegistry.getRuleProfiler().map(RuleProfiler::getUnmatchedCount)).contains(2L);
+        assertThat(profiledRegistry.getCacheStats()).contains(new CacheStats(0, 1, 0, 1));
+    }
+
+    @Test
+    void cacheParseResultsPerThread() {
+        DomainRegistry cachedRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withCache(100)
+            .withThreadLocalCache(16)
+            .build();
+
+        DomainParts parts = cachedRegistry.parse("sub.test.com");
+
+        assertThat(cachedRegistry.parse("sub.test.com")).isSameAs(parts);
+        assertThat(cachedRegistry.getCacheStats()).contains(new CacheStats(0, 1, 0, 1));
+    }
+
+    @Test
+    void reportMetrics() {
+        DomainRegistryMetrics metrics = new DomainRegistryMetrics();
+        DomainRegistry instrumentedRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withRule("个人.hk")
+            .withListener(metrics)
+            .withLatencySampling(1)
+            .build();
+
+        instrumentedRegistry.parse("test.com");
+        instrumentedRegistry.getPublicSuffix("xn--ciqpn.hk");
+        instrumentedRegistry.parse("test.invalid");
+        instrumentedRegistry.indexOfPublicSuffix(new StringBuilder("教育.个人.hk"));
+
+        assertThat(metrics.getLookupCount()).isEqualTo(4);
+        assertThat(metrics.getMatchedCount()).isEqualTo(3);
+        assertThat(metrics.getUnmatchedCount()).isEqualTo(1);
+        assertThat(metrics.getInternationalizedCount()).isEqualTo(2);
+        assertThat(Arrays.stream(metrics.getLatencyHistogram()).sum()).isEqualTo(4);
+        assertThat(metrics.getRuleCount()).isEqualTo(2);
+        assertThat(metrics.getBuildDuration()).isPositive();
+    }
+
+    @Test
+    void profileRuleHits() {
+        DomainRegistry profiledRegistry = new DomainRegistryBuilder()
+            .withRule("com")
+            .withRule("*.ck")
+            .withRuleProfiling()
+            .build();
+
+        profiledRegistry.parse("a.test.ck");
+        profiledRegistry.parse("b.test.ck");
+        profiledRegistry.parse("test.com");
+
+        assertThat(profiledRegistry.getRuleProfiler().map(profiler -> profiler.snapshot(1)))
+            .contains(Collections.singletonList(new RuleHits(new Rule("*.ck"), 2)));
+        assertThat(registry.getRuleProfiler()).isEmpty();
+    }
+
+    @Test
+    void loadRemainingRulesOfListWithInvalidLine() {
+        DomainRegistry registry = new DomainRegistryBuilder()
+            .from(new ByteArrayInputStream("com\nco..uk\nblogspot.com\n".getBytes(StandardCharsets.UTF_8)))
+            .build();
+
+        assertThat(registry.getPublicSuffix("test.blogspot.com")).contains("blogspot.com");
+        assertThat(registry.getPublicSuffix("test.com")).contains("com");
+    }
+
     @Test
     void notExtractInvalid() {
         validateDomainRegistryForDomain(DomainTestCase.builder()
@@ -182,11 +355,114 @@ class DomainRegistryShould {
             .build());
     }
 
+    @Test
+    void extractFromSnapshot() throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new RuleRegistrySnapshot().write(new RuleRegistryFactory().build(Arrays.asList(new Rule("*.ck"), new Rule("!www.ck"))), snapshot);
+
+        DomainRegistry snapshotRegistry = new DomainRegistryBuilder()
+            .fromSnapshot(new ByteArrayInputStream(snapshot.toByteArray()))
+            .withRule("com")
+            .build();
+
+        validateDomainRegistryForDomain(snapshotRegistry, DomainTestCase.builder()
+            .originalDomain("sub.test.pub.ck")
+            .withoutSubDomain("test.pub.ck")
+            .subDomain("sub")
+            .registrableName("test")
+            .publicSuffix("pub.ck")
+            .build());
+
+        validateDomainRegistryForDomain(snapshotRegistry, DomainTestCase.builder()
+            .originalDomain("sub.www.ck")
+            .withoutSubDomain("www.ck")
+            .subDomain("sub")
+            .registrableName("www")
+            .publicSuffix("ck")
+            .build());
+
+        validateDomainRegistryForDomain(snapshotRegistry, DomainTestCase.builder()
+            .originalDomain("test.com")
+            .withoutSubDomain("test.com")
+            .subDomain(null)
+            .registrableName("test")
+            .publicSuffix("com")
+            .build());
+    }
+
     private void validateDomainRegistryForDomain(DomainTestCase testCase) {
+        validateDomainRegistryForDomain(registry, testCase);
+        validateDomainRegistryForDomain(arrayRegistry, testCase);
+    }
+
+    private void validateDomainRegistryForDomain(DomainRegistry registry, DomainTestCase testCase) {
         assertThat(registry.getPublicSuffix(testCase.originalDomain)).isEqualTo(ofNullable(testCase.publicSuffix));
         assertThat(registry.getRegistrableName(testCase.originalDomain)).isEqualTo(ofNullable(testCase.registrableName));
         assertThat(registry.getSubDomain(testCase.originalDomain)).isEqualTo(ofNullable(testCase.subDomain));
         assertThat(registry.stripSubDomain(testCase.originalDomain)).isEqualTo(ofNullable(testCase.withoutSubDomain));
+        validateDomainParts(registry.parse(testCase.originalDomain), testCase);
+        validateDomainView(registry.parse(new StringBuilder(testCase.originalDomain), view), testCase);
+        validateIndexes(registry, testCase);
+    }
+
+    private void validateDomainView(DomainView view, DomainTestCase testCase) {
+        assertThat(view.getDomain()).hasToString(testCase.originalDomain);
+        assertThat(view.hasPublicSuffix()).isEqualTo(testCase.publicSuffix != null);
+        assertThat(view.publicSuffix()).hasToString(valueOf(testCase.publicSuffix));
+        assertThat(view.hasRegistrableName()).isEqualTo(testCase.registrableName != null);
+        assertThat(view.registrableName()).hasToString(valueOf(testCase.registrableName));
+        assertThat(view.hasSubDomain()).isEqualTo(testCase.subDomain != null);
+        assertThat(view.subDomain()).hasToString(valueOf(testCase.subDomain));
+        assertThat(view.registrableDomain()).hasToString(valueOf(testCase.withoutSubDomain).replaceAll("\\.+$", ""));
+    }
+
+    private static String valueOf(String part) {
+        return part == null ? "" : part;
+    }
+
+    private void validateIndexes(DomainRegistry registry, DomainTestCase testCase) {
+        String domain = testCase.originalDomain;
+        int publicSuffixIndex = registry.indexOfPublicSuffix(new StringBuilder(domain));
+        int registrableNameIndex = registry.indexOfRegistrableName(new StringBuilder(domain));
+        assertThat(publicSuffixIndex).isEqualTo(testCase.publicSuffix == null ? -1 : domain.lastIndexOf(testCase.publicSuffix));
+        assertThat(registrableNameIndex).isEqualTo(testCase.registrableName == null ? -1 : publicSuffixIndex - testCase.registrableName.length() - 1);
+
+        byte[] bytes = ("  " + domain + "  ").getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length - 4;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).position(2);
+        buffer.limit(2 + length);
+
+        assertThat(registry.indexOfPublicSuffix(bytes, 2, length)).isEqualTo(byteIndex(domain, publicSuffixIndex, 2));
+        assertThat(registry.indexOfRegistrableName(bytes, 2, length)).isEqualTo(byteIndex(domain, registrableNameIndex, 2));
+        assertThat(registry.indexOfPublicSuffix(buffer)).isEqualTo(byteIndex(domain, publicSuffixIndex, 2));
+        assertThat(registry.indexOfRegistrableName(buffer)).isEqualTo(byteIndex(domain, registrableNameIndex, 2));
+        assertThat(buffer.position()).isEqualTo(2);
+    }
+
+    private static int byteIndex(String domain, int charIndex, int offset) {
+        return charIndex < 0 ? -1 : offset + domain.substring(0, charIndex).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void validateDomainParts(DomainParts parts, DomainTestCase testCase) {
+        assertThat(parts.getDomain()).isEqualTo(testCase.originalDomain);
+        assertThat(parts.getPublicSuffix()).isEqualTo(ofNullable(testCase.publicSuffix));
+        assertThat(parts.getRegistrableName()).isEqualTo(ofNullable(testCase.registrableName));
+        assertThat(parts.getSubDomain()).isEqualTo(ofNullable(testCase.subDomain));
+        assertThat(parts.getRegistrableDomain()).isEqualTo(ofNullable(testCase.withoutSubDomain));
+    }
+
+    private static DomainRegistry buildRegistry(RuleIndexType indexType) {
+        return new DomainRegistryBuilder()
+            .withRule("com")
+            .withRule("blogspot.com")
+            .withRule("blogspot.com.co")
+            .withRule("*.ck")
+            .withRule("!www.ck")
+            .withRule("个人.hk")
+            .withRule("com.cn")
+            .withIndexType(indexType)
+            .build();
     }
 
     @Builder
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DomainViewShould {
+
+    private final DomainRegistry registry = new DomainRegistryBuilder()
+        .withRule("com")
+        .withRule("blogspot.com")
+        .build();
+
+    @Test
+    void compareSitesIgnoringCase() {
+        DomainView first = registry.parse("www.Example.com", new DomainView());
+        DomainView second = registry.parse("mail.EXAMPLE.COM.", new DomainView());
+        DomainView third = registry.parse("example.blogspot.com", new DomainView());
+
+        assertThat(first.isSameSite(second)).isTrue();
+        assertThat(first.isSameSite(third)).isFalse();
+        assertThat(first.registrableDomain()).isEqualTo(second.registrableDomain());
+        assertThat(first.registrableDomain().hashCode()).isEqualTo(second.registrableDomain().hashCode());
+        assertThat(first.registrableDomain().contentEquals("example.com")).isTrue();
+    }
+
+    @Test
+    void notBeSameSiteWithoutRegistrableName() {
+        DomainView first = registry.parse("com", new DomainView());
+        DomainView second = registry.parse("com", new DomainView());
+
+        assertThat(first.isSameSite(second)).isFalse();
+        assertThat(first.registrableDomain()).isEmpty();
+    }
+
+    @Test
+    void sliceOriginalDomain() {
+        DomainView view = registry.parse("a.b.test.blogspot.com", new DomainView());
+
+        assertThat(view.subDomain().getStart()).isEqualTo(0);
+        assertThat(view.subDomain().getEnd()).isEqualTo(3);
+        assertThat(view.registrableName().subSequence(1, 3)).hasToString("es");
+        assertThat(view.publicSuffix().charAt(0)).isEqualTo('b');
+    }
+
+    @Test
+    void rejectSubSequenceOutsideSlice() {
+        DomainView view = registry.parse("www.example.com", new DomainView());
+
+        assertThatThrownBy(() -> view.registrableName().subSequence(0, 8)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> view.registrableName().subSequence(-1, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> view.registrableName().subSequence(3, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(view.registrableName().subSequence(0, 7)).hasToString("example");
+    }
+
+    @Test
+    void excludeTrailingDotsFromRegistrableDomain() {
+        DomainView view = registry.parse("www.example.com..", new DomainView());
+
+        assertThat(view.registrableDomain()).hasToString("example.com");
+        assertThat(registry.parse("www.example.com..").getRegistrableDomain()).contains("example.com..");
+    }
+
+    @Test
+    void reflectLatestParsedDomain() {
+        DomainView view = new DomainView();
+        DomainView.Slice registrableDomain = registry.parse("www.example.com", view).registrableDomain();
+
+        registry.parse("unknown", view);
+
+        assertThat(view.hasPublicSuffix()).isFalse();
+        assertThat(registrableDomain).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseCacheShould {
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final Function<String, DomainParts> parser = domain -> {
+        parsed.incrementAndGet();
+        return DomainParts.of(domain, 1);
+    };
+
+    @Test
+    void returnCachedResult() {
+        ParseCache cache = new ParseCache(10);
+
+        DomainParts parts = cache.get("test.com", parser);
+
+        assertThat(cache.get("test.com", parser)).isSameAs(parts);
+        assertThat(parsed).hasValue(1);
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 0, 1));
+    }
+
+    @Test
+    void stayWithinMaximumSize() {
+        ParseCache cache = new ParseCache(1000);
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.get("sub" + i + ".com", parser);
+        }
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getSize()).isEqualTo(1000);
+        assertThat(stats.getEvictionCount()).isEqualTo(9000);
+        assertThat(stats.getMissCount()).isEqualTo(10_000);
+    }
+
+    @Test
+    void keepFrequentDomainsDuringScan() {
+        ParseCache cache = new ParseCache(100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i + ".com", parser);
+            }
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.get("scan" + i + ".com", parser);
+        }
+
+        parsed.set(0);
+        for (int i = 0; i < 50; i++) {
+            cache.get("hot" + i + ".com", parser);
+        }
+        assertThat(parsed.get()).isLessThan(5);
+    }
+
+    @Test
+    void handleConcurrentLookups() throws Exception {
+        ParseCache cache = new ParseCache(500);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> lookups = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int seed = thread;
+            lookups.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    String domain = "sub" + ((i * 31 + seed) % 2000) + ".com";
+                    assertThat(cache.get(domain, parser).getDomain()).isEqualTo(domain);
+                }
+            }));
+        }
+        for (Future<?> lookup : lookups) {
+            lookup.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getRequestCount()).isEqualTo(160_000);
+        assertThat(stats.getSize()).isLessThanOrEqualTo(500);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReloadableDomainRegistryShould {
+
+    @Test
+    void swapRegistryOnReload() {
+        AtomicReference<String> rule = new AtomicReference<>("com");
+        ReloadableDomainRegistry registry = new ReloadableDomainRegistry(() -> new DomainRegistryBuilder().withRule(rule.get()).build());
+        DomainRegistry initial = registry.get();
+
+        assertThat(registry.parse("sub.test.com").getRegistrableName()).contains("test");
+        assertThat(registry.getVersion()).isEqualTo(1);
+
+        rule.set("test.com");
+        registry.reload();
+
+        assertThat(registry.get()).isNotSameAs(initial);
+        assertThat(registry.parse("sub.test.com").getRegistrableName()).contains("sub");
+        assertThat(initial.parse("sub.test.com").getRegistrableName()).contains("test");
+        assertThat(registry.getVersion()).isEqualTo(2);
+        assertThat(registry.getLastReloadTime()).isBeforeOrEqualTo(Instant.now());
+        assertThat(registry.getLastReloadDuration().isNegative()).isFalse();
+    }
+
+    @Test
+    void releaseThreadCacheOfReplacedRegistry() throws InterruptedException {
+        ReloadableDomainRegistry registry = new ReloadableDomainRegistry(() -> new DomainRegistryBuilder().withRule("com").withThreadLocalCache(16).build());
+        DomainRegistry initial = registry.get();
+        WeakReference<DomainParts> cached = new WeakReference<>(registry.parse("sub.test.com"));
+
+        registry.reload();
+        registry.parse("sub.test.com");
+
+        for (int i = 0; i < 10 && cached.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(cached.get()).isNull();
+        assertThat(initial).isNotSameAs(registry.get());
+    }
+
+    @Test
+    void keepRegistryWhenReloadFails() {
+        AtomicReference<String> rule = new AtomicReference<>("com");
+        ReloadableDomainRegistry registry = new ReloadableDomainRegistry(() -> new DomainRegistryBuilder().withRule(rule.get()).build());
+        DomainRegistry initial = registry.get();
+
+        rule.set("");
+
+        assertThatThrownBy(registry::reload).isInstanceOf(RuntimeException.class);
+        assertThat(registry.get()).isSameAs(initial);
+        assertThat(registry.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void reloadChangedFile(@TempDir Path directory) throws Exception {
+        Path rules = directory.resolve("rules.dat");
+        writeRules(directory, rules, "com", Instant.now().minusSeconds(60));
+
+        try (ReloadableDomainRegistry registry = ReloadableDomainRegistry.watching(rules, Duration.ofMillis(10))) {
+            assertThat(registry.parse("sub.test.com").getRegistrableName()).contains("test");
+
+            writeRules(directory, rules, "com\ntest.com", Instant.now());
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (registry.getVersion() == 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(registry.getVersion()).isEqualTo(2);
+            assertThat(registry.parse("sub.test.com").getRegistrableName()).contains("sub");
+            assertThat(registry.getLastReloadFailure()).isEmpty();
+        }
+    }
+
+    private static void writeRules(Path directory, Path rules, String content, Instant modified) throws IOException {
+        Path temporary = Files.createTempFile(directory, "rules", ".tmp");
+        Files.write(temporary, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(temporary, FileTime.from(modified));
+        Files.move(temporary, rules, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadLocalParseCacheShould {
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final Function<String, DomainParts> parser = domain -> {
+        parsed.incrementAndGet();
+        return DomainParts.of(domain, 1);
+    };
+
+    @Test
+    void returnCachedResult() {
+        ThreadLocalParseCache cache = new ThreadLocalParseCache(8);
+
+        DomainParts parts = cache.get("test.com", parser);
+
+        assertThat(cache.get(new String("test.com"), parser)).isSameAs(parts);
+        assertThat(parsed).hasValue(1);
+    }
+
+    @Test
+    void replaceCollidingResult() {
+        ThreadLocalParseCache cache = new ThreadLocalParseCache(1);
+
+        cache.get("a.com", parser);
+        cache.get("b.com", parser);
+
+        assertThat(cache.get("a.com", parser).getDomain()).isEqualTo("a.com");
+        assertThat(parsed).hasValue(3);
+    }
+
+    @Test
+    void replaceSlotsOfOtherCache() {
+        ThreadLocalParseCache first = new ThreadLocalParseCache(8);
+        ThreadLocalParseCache second = new ThreadLocalParseCache(8);
+        DomainParts parts = first.get("test.com", parser);
+
+        assertThat(second.get("test.com", parser)).isNotSameAs(parts);
+        assertThat(first.get("test.com", parser)).isNotSameAs(parts);
+        assertThat(parsed).hasValue(3);
+    }
+
+    @Test
+    void keepSlotsPerThread() throws Exception {
+        ThreadLocalParseCache cache = new ThreadLocalParseCache(8);
+        DomainParts parts = cache.get("test.com", parser);
+
+        DomainParts otherThreadParts = CompletableFuture.supplyAsync(() -> cache.get("test.com", parser)).get();
+
+        assertThat(otherThreadParts).isNotSameAs(parts);
+        assertThat(parsed).hasValue(2);
+    }
+}
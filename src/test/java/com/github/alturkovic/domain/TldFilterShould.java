@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TldFilterShould {
+
+    @Test
+    void acceptKnownTopLevelLabelsInAnyForm() {
+        TldFilter filter = TldFilter.of(Arrays.asList("com", "中国", "xn--p1ai"));
+
+        assertThat(filter.mightContain("example.com")).isTrue();
+        assertThat(filter.mightContain("EXAMPLE.COM..")).isTrue();
+        assertThat(filter.mightContain("例子.中国")).isTrue();
+        assertThat(filter.mightContain("xn--fsqu00a.XN--FIQS8S")).isTrue();
+        assertThat(filter.mightContain("пример.рф")).isTrue();
+    }
+
+    @Test
+    void rejectUnknownTopLevelLabels() {
+        TldFilter filter = TldFilter.of(Arrays.asList("com", "org"));
+
+        assertThat(filter.mightContain("alturkovic.invalid")).isFalse();
+        assertThat(filter.mightContain("printer.local")).isFalse();
+        assertThat(filter.mightContain("com.example")).isFalse();
+        assertThat(filter.mightContain("...")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain(null)).isFalse();
+    }
+
+    @Test
+    void acceptAllWithTopLevelWildcard() {
+        TldFilter filter = TldFilter.of(Collections.singletonList("*"));
+
+        assertThat(filter.mightContain("alturkovic.invalid")).isTrue();
+    }
+
+    @Test
+    void checkOnlyTheLastLabel() {
+        TldFilter filter = TldFilter.of(Collections.singletonList("com"));
+
+        assertThat(filter.mightContain("com")).isTrue();
+        assertThat(filter.mightContain("invalid.com.")).isTrue();
+        assertThat(filter.mightContain("com.invalid")).isFalse();
+        assertThat(filter.mightContain("xcom")).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.DomainRegistryBuilder;
+import com.github.alturkovic.domain.rule.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleProfilerShould {
+    private final RuleRegistry registry = new RuleRegistryFactory()
+        .build(Arrays.asList(new Rule("com"), new Rule("*.ck"), new Rule("!www.ck")))
+        .withProfiling();
+
+    @Test
+    void countPrevailingRules() {
+        registry.findRule("a.com");
+        registry.findRule("b.com");
+        registry.findRule("c.test.ck");
+        registry.findRule("sub.www.ck");
+        registry.findRule("test.invalid");
+
+        RuleProfiler profiler = registry.getProfiler().orElseThrow(IllegalStateException::new);
+        assertThat(profiler.snapshot(1)).containsExactly(new RuleHits(new Rule("com"), 2));
+        assertThat(profiler.snapshot(10)).containsExactlyInAnyOrder(
+            new RuleHits(new Rule("com"), 2),
+            new RuleHits(new Rule("*.ck"), 1),
+            new RuleHits(new Rule("!www.ck"), 1));
+        assertThat(profiler.getHits(new Rule("*.ck"))).isEqualTo(1);
+        assertThat(profiler.getUnmatchedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void countExceptionAndWildcardRulesSeparately() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry profiled = new RuleRegistryFactory().build(registry.getRules(), indexType).withProfiling();
+
+            profiled.findRule("a.test.ck");
+            profiled.findRule("b.test.ck");
+            profiled.findRule("www.ck");
+            profiled.findRule("a.www.ck");
+            profiled.findRule("b.www.ck");
+
+            RuleProfiler profiler = profiled.getProfiler().orElseThrow(IllegalStateException::new);
+            assertThat(profiler.getHits(new Rule("!www.ck"))).isEqualTo(3);
+            assertThat(profiler.getHits(new Rule("*.ck"))).isEqualTo(2);
+            assertThat(profiler.snapshot(1)).containsExactly(new RuleHits(new Rule("!www.ck"), 3));
+        }
+    }
+
+    @Test
+    void countUnmatchedLookups() {
+        registry.findRule("test.invalid");
+        registry.findRule("");
+        registry.findRule("ck");
+        registry.findRule("test.ck");
+
+        RuleProfiler profiler = registry.getProfiler().orElseThrow(IllegalStateException::new);
+        assertThat(profiler.getUnmatchedCount()).isEqualTo(3);
+        assertThat(profiler.snapshot(10)).containsExactly(new RuleHits(new Rule("*.ck"), 1));
+    }
+
+    @Test
+    void resetCounts() {
+        registry.findRule("a.com");
+        registry.findRule("test.invalid");
+        RuleProfiler profiler = registry.getProfiler().orElseThrow(IllegalStateException::new);
+
+        profiler.reset();
+
+        assertThat(profiler.snapshot(10)).isEmpty();
+        assertThat(profiler.getHits(new Rule("com"))).isZero();
+        assertThat(profiler.getUnmatchedCount()).isZero();
+
+        registry.findRule("b.com");
+        assertThat(profiler.getHits(new Rule("com"))).isEqualTo(1);
+    }
+
+    @Test
+    void notProfileByDefault() {
+        assertThat(new RuleRegistryFactory().build(Arrays.asList(new Rule("com"))).getProfiler()).isEmpty();
+        assertThat(new DomainRegistryBuilder().withRule("com").build().getRuleProfiler()).isEmpty();
+    }
+}
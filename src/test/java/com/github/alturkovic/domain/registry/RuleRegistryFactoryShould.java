@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleRegistryFactoryShould {
+    private final RuleRegistryFactory factory = new RuleRegistryFactory();
+
+    private final List<Rule> rules = Arrays.asList(
+        new Rule("com"),
+        new Rule("blogspot.com"),
+        new Rule("*.ck"),
+        new Rule("!www.ck"),
+        new Rule("*.compute.amazonaws.com"),
+        new Rule("个人.hk")
+    );
+
+    @Test
+    void buildFromParallelStream() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = factory.build(rules.parallelStream(), indexType);
+
+            assertThat(registry.getRules()).containsExactlyInAnyOrderElementsOf(rules);
+            assertThat(registry.findRule("sub.www.ck")).contains(new Rule("!www.ck"));
+        }
+    }
+
+    @Test
+    void shareEqualLabelsBetweenNodes() {
+        RuleRegistry registry = factory.build(Arrays.asList(new Rule("co.uk"), new Rule("CO.jp"), new Rule("co")));
+        ImmutableNode root = ((NodeRuleIndex) registry.getIndex()).getRoot();
+
+        String label = root.getChild("co").getLabel();
+        assertThat(root.getChild("uk").getChild("co").getLabel()).isSameAs(label);
+        assertThat(root.getChild("jp").getChild("co").getLabel()).isSameAs(label);
+    }
+
+    @Test
+    void updateToSameRulesAsRebuild() {
+        RuleRegistry registry = factory.build(rules);
+
+        RuleRegistry updated = factory.update(registry,
+            Arrays.asList(new Rule("co.uk"), new Rule("uk"), new Rule("*.blogspot.com")),
+            Arrays.asList(new Rule("blogspot.com"), new Rule("*.compute.amazonaws.com"), new Rule("not.registered")));
+
+        assertThat(updated.getRules()).containsExactlyInAnyOrder(
+            new Rule("com"), new Rule("*.blogspot.com"), new Rule("*.ck"), new Rule("!www.ck"), new Rule("个人.hk"), new Rule("co.uk"), new Rule("uk"));
+        assertThat(updated.getRuleCount()).isEqualTo(7);
+        assertThat(updated.findRule("test.co.uk")).contains(new Rule("co.uk"));
+        assertThat(updated.findRule("a.test.blogspot.com")).contains(new Rule("*.blogspot.com"));
+        assertThat(updated.findRule("a.b.compute.amazonaws.com")).contains(new Rule("com"));
+    }
+
+    @Test
+    void keepPreviousRegistryUnchanged() {
+        RuleRegistry registry = factory.build(rules);
+
+        factory.update(registry, Collections.singletonList(new Rule("co.uk")), Collections.singletonList(new Rule("com")));
+
+        assertThat(registry.getRules()).containsExactlyInAnyOrderElementsOf(rules);
+        assertThat(registry.findRule("test.co.uk")).isEmpty();
+        assertThat(registry.findRule("test.com")).contains(new Rule("com"));
+    }
+
+    @Test
+    void shareUnchangedNodes() {
+        RuleRegistry registry = factory.build(rules);
+
+        RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("test.com")), Collections.emptyList());
+
+        ImmutableNode root = rootOf(registry);
+        ImmutableNode updatedRoot = rootOf(updated);
+        assertThat(updatedRoot).isNotSameAs(root);
+        assertThat(updatedRoot.getChild("com")).isNotSameAs(root.getChild("com"));
+        assertThat(updatedRoot.getChild("ck")).isSameAs(root.getChild("ck"));
+        assertThat(updatedRoot.getChild("com").getChild("blogspot")).isSameAs(root.getChild("com").getChild("blogspot"));
+    }
+
+    @Test
+    void removeEmptyNodes() {
+        RuleRegistry registry = factory.build(rules);
+
+        RuleRegistry updated = factory.update(registry, Collections.emptyList(), Collections.singletonList(new Rule("*.compute.amazonaws.com")));
+
+        assertThat(rootOf(updated).getChild("com").getChild("amazonaws")).isNull();
+        assertThat(rootOf(updated).getChild("com").getRule()).isEqualTo(new Rule("com"));
+    }
+
+    @Test
+    void keepLayoutOnUpdate() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = factory.build(rules, indexType);
+
+            RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("co.uk")), Collections.singletonList(new Rule("com")));
+
+            assertThat(updated.getIndex().getType()).isEqualTo(indexType);
+            assertThat(updated.findRule("test.co.uk")).contains(new Rule("co.uk"));
+            assertThat(updated.findRule("test.com")).isEmpty();
+            assertThat(updated.getRuleCount()).isEqualTo(rules.size());
+        }
+    }
+
+    @Test
+    void rebuildMappedSnapshotAsArrayTrie() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new RuleRegistrySnapshot().write(factory.build(rules), output);
+        RuleRegistry registry = new RuleRegistrySnapshot().wrap(ByteBuffer.wrap(output.toByteArray()));
+
+        RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("co.uk")), Collections.emptyList());
+
+        assertThat(registry.getIndex()).isInstanceOf(MappedRuleIndex.class);
+        assertThat(updated.getIndex()).isInstanceOf(ArrayRuleIndex.class);
+        assertThat(updated.findRule("test.co.uk")).contains(new Rule("co.uk"));
+    }
+
+    @Test
+    void removeRulesIgnoringCase() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = factory.build(rules, indexType);
+
+            RuleRegistry updated = factory.update(registry, Collections.emptyList(), Arrays.asList(new Rule("COM"), new Rule("!WWW.ck"), new Rule("*.CK")));
+
+            assertThat(updated.getRules()).containsExactlyInAnyOrder(new Rule("blogspot.com"), new Rule("*.compute.amazonaws.com"), new Rule("个人.hk"));
+            assertThat(updated.getRuleCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void notRemoveExceptionRuleWithSamePattern() {
+        RuleRegistry registry = factory.build(rules);
+
+        RuleRegistry updated = factory.update(registry, Collections.emptyList(), Collections.singletonList(new Rule("www.ck")));
+
+        assertThat(updated.findRule("sub.www.ck")).contains(new Rule("!www.ck"));
+    }
+
+    @Test
+    void replaceRuleWithSamePatternIgnoringCase() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = factory.build(rules, indexType);
+
+            RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("BlogSpot.COM")), Collections.emptyList());
+
+            assertThat(updated.getRuleCount()).isEqualTo(rules.size());
+            assertThat(updated.findRule("test.blogspot.com").map(Rule::getPattern)).contains("BlogSpot.COM");
+        }
+    }
+
+    @Test
+    void keepProfilerOnUpdate() {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = factory.build(rules, indexType).withProfiling();
+            registry.findRule("test.com");
+
+            RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("co.uk")), Collections.emptyList());
+            updated.findRule("other.com");
+
+            assertThat(updated.getProfiler()).containsSame(registry.getProfiler().get());
+            assertThat(updated.getProfiler().get().getHits(new Rule("com"))).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shareLabelsWithUpdatedNodes() {
+        RuleRegistry registry = factory.build(rules);
+
+        RuleRegistry updated = factory.update(registry, Collections.singletonList(new Rule("COMPUTE.Com")), Collections.emptyList());
+
+        ImmutableNode com = rootOf(updated).getChild("com");
+        assertThat(com.getChild("compute").getLabel()).isSameAs(rootOf(registry).getChild("com").getChild("amazonaws").getChild("compute").getLabel());
+    }
+
+    private static ImmutableNode rootOf(RuleRegistry registry) {
+        return ((NodeRuleIndex) registry.getIndex()).getRoot();
+    }
+}
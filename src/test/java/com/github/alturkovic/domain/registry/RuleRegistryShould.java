@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import com.github.alturkovic.domain.rule.RuleComparator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleRegistryShould {
+
+    private final List<Rule> rules = Arrays.asList(
+        new Rule("com"),
+        new Rule("blogspot.com"),
+        new Rule("*.ck"),
+        new Rule("!www.ck"),
+        new Rule("*.compute.amazonaws.com"),
+        new Rule("个人.hk")
+    );
+
+    @Test
+    void findPrevailingRule() {
+        forEachIndexType(this::findPrevailingRule);
+    }
+
+    @Test
+    void findPrevailingRuleCaseInsensitive() {
+        forEachIndexType(registry -> assertThat(registry.findRule("Test.BlogSpot.COM")).contains(new Rule("blogspot.com")));
+    }
+
+    @Test
+    void findPrevailingRuleForCharSequence() {
+        forEachIndexType(registry -> {
+            assertThat(registry.findRule(new StringBuilder("Sub.Test.CK"))).contains(new Rule("*.ck"));
+            assertThat(registry.findRule(new StringBuilder("教育.个人.HK"))).contains(new Rule("个人.hk"));
+        });
+    }
+
+    @Test
+    void findPrevailingRuleIndependentOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            for (RuleIndexType indexType : RuleIndexType.values()) {
+                RuleRegistry registry = new RuleRegistryFactory().build(Arrays.asList(new Rule("BIZ"), new Rule("info.biz")), indexType);
+                assertThat(registry.findRule("EXAMPLE.INFO.BIZ")).contains(new Rule("info.biz"));
+                assertThat(registry.findRule("example.biz").map(Rule::getPattern)).hasValueSatisfying(pattern -> assertThat(pattern).isEqualToIgnoringCase("biz"));
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void returnRegisteredRuleInstances() {
+        Rule rule = new Rule("Info.BIZ");
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            RuleRegistry registry = new RuleRegistryFactory().build(Arrays.asList(new Rule("biz"), rule), indexType);
+            assertThat(registry.findRule("example.info.biz")).containsSame(rule);
+            assertThat(registry.getRules()).anySatisfy(registered -> assertThat(registered).isSameAs(rule));
+        }
+    }
+
+    @Test
+    void notFindRuleForUnknownDomain() {
+        forEachIndexType(this::notFindRuleForUnknownDomain);
+    }
+
+    @Test
+    void findSamePrevailingRuleAsComparator() {
+        forEachIndexType(this::findSamePrevailingRuleAsComparator);
+    }
+
+    @Test
+    void getRegisteredRules() {
+        forEachIndexType(registry -> {
+            assertThat(registry.getRules()).containsExactlyInAnyOrderElementsOf(rules);
+            assertThat(registry.getRuleCount()).isEqualTo(rules.size());
+            assertThat(registry.getTopLevelLabels()).containsExactlyInAnyOrder("com", "ck", "hk");
+        });
+    }
+
+    private void findPrevailingRule(RuleRegistry registry) {
+        assertThat(registry.findRule("test.com")).contains(new Rule("com"));
+        assertThat(registry.findRule("test.blogspot.com")).contains(new Rule("blogspot.com"));
+        assertThat(registry.findRule("sub.test.ck")).contains(new Rule("*.ck"));
+        assertThat(registry.findRule("sub.www.ck")).contains(new Rule("!www.ck"));
+        assertThat(registry.findRule("a.b.compute.amazonaws.com")).contains(new Rule("*.compute.amazonaws.com"));
+        assertThat(registry.findRule("教育.个人.hk")).contains(new Rule("个人.hk"));
+    }
+
+    private void notFindRuleForUnknownDomain(RuleRegistry registry) {
+        assertThat(registry.findRule("test.invalid")).isEmpty();
+        assertThat(registry.findRule("amazonaws.com")).contains(new Rule("com"));
+        assertThat(registry.findRule("")).isEmpty();
+        assertThat(registry.findRule(".")).isEmpty();
+    }
+
+    private void findSamePrevailingRuleAsComparator(RuleRegistry registry) {
+        for (String domain : Arrays.asList("com", "test.com", "www.ck", "ck", "a.compute.amazonaws.com", "test.com.")) {
+            Optional<Rule> expected = registry.findRules(domain).stream().max(RuleComparator.INSTANCE);
+            assertThat(registry.findRule(domain)).isEqualTo(expected);
+        }
+    }
+
+    private void forEachIndexType(Consumer<RuleRegistry> assertion) {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            assertion.accept(new RuleRegistryFactory().build(rules, indexType));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.registry;
+
+import com.github.alturkovic.domain.rule.Rule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleRegistrySnapshotShould {
+
+    private final RuleRegistrySnapshot snapshot = new RuleRegistrySnapshot();
+
+    private final List<Rule> rules = Arrays.asList(
+        new Rule("com"),
+        new Rule("blogspot.com"),
+        new Rule("*.ck"),
+        new Rule("!www.ck"),
+        new Rule("个人.hk")
+    );
+
+    @Test
+    void readWrittenSnapshot() throws IOException {
+        for (RuleIndexType indexType : RuleIndexType.values()) {
+            assertSnapshotRules(snapshot.read(new ByteArrayInputStream(write(indexType))));
+        }
+    }
+
+    @Test
+    void serveWrappedSnapshot() throws IOException {
+        byte[] bytes = write(RuleIndexType.NODE_TRIE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+        buffer.put(new byte[3]).put(bytes).flip();
+        buffer.get(new byte[3]);
+
+        assertSnapshotRules(snapshot.wrap(buffer));
+    }
+
+    @Test
+    void serveMappedSnapshot(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("rules.snapshot"), write(RuleIndexType.ARRAY_TRIE));
+        RuleRegistry registry = snapshot.map(file);
+
+        assertSnapshotRules(registry);
+
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        snapshot.write(registry, rewritten);
+        assertThat(rewritten.toByteArray()).isEqualTo(Files.readAllBytes(file));
+    }
+
+    @Test
+    void rejectCorruptedSnapshot() throws IOException {
+        byte[] bytes = write(RuleIndexType.ARRAY_TRIE);
+        bytes[bytes.length / 2] ^= 1;
+
+        assertThatThrownBy(() -> snapshot.read(new ByteArrayInputStream(bytes)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void rejectTruncatedSnapshot() throws IOException {
+        byte[] bytes = Arrays.copyOf(write(RuleIndexType.ARRAY_TRIE), 100);
+
+        assertThatThrownBy(() -> snapshot.read(new ByteArrayInputStream(bytes)))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectOtherContent() {
+        assertThatThrownBy(() -> snapshot.read(new ByteArrayInputStream("com\nnet\n".getBytes())))
+            .isInstanceOf(IOException.class);
+    }
+
+    private void assertSnapshotRules(RuleRegistry registry) {
+        assertThat(registry.getRules()).containsExactlyInAnyOrderElementsOf(rules);
+        assertThat(registry.findRule("test.blogspot.com")).contains(new Rule("blogspot.com"));
+        assertThat(registry.findRule("sub.test.ck")).contains(new Rule("*.ck"));
+        assertThat(registry.findRule("www.ck")).contains(new Rule("!www.ck"));
+        assertThat(registry.findRule("教育.个人.hk")).contains(new Rule("个人.hk"));
+        assertThat(registry.findRule("test.invalid")).isEmpty();
+    }
+
+    private byte[] write(RuleIndexType indexType) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(new RuleRegistryFactory().build(rules, indexType), bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -25,11 +25,20 @@
 package com.github.alturkovic.domain.rule;
 
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class RuleParserShould {
 
@@ -93,6 +102,57 @@ class RuleParserShould {
         assertRulePattern("com\n", "com");
         assertRulePattern("com //comment", "com");
         assertRulePattern("com comment", "com");
+        assertRulePattern("com\tcomment", "com");
+        assertRulePattern("\uFEFFcom", "com");
+    }
+
+    @Test
+    void skipInvalidRulesByDefault() {
+        List<Rule> rules = parser.parse(stream("com\n\na..com\ncom.\n*.ck\n"));
+
+        assertThat(rules).containsExactly(new Rule("com"), new Rule("*.ck"));
+    }
+
+    @Test
+    void failOnInvalidRuleWhenStrict() {
+        assertThatThrownBy(() -> RuleParser.strict().parse(stream("com\n\na..com\n")))
+            .isInstanceOf(RuleParseException.class)
+            .hasMessage("Line 3 'a..com': empty label");
+    }
+
+    @Test
+    void reportInvalidRulesWithoutAborting() {
+        List<RuleParseException> errors = new ArrayList<>();
+        List<Rule> rules = new RuleParser(errors::add).parse(stream("com\n!\n.com\ncom.\nfoo*.com\n*.ck\n"));
+
+        assertThat(rules).containsExactly(new Rule("com"), new Rule("*.ck"));
+        assertThat(errors).extracting(RuleParseException::getLineNumber).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(errors).extracting(RuleParseException::getLine).containsExactly("!", ".com", "com.", "foo*.com");
+    }
+
+    @Test
+    void parseLargeFileInParallel(@TempDir Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<Rule> expected = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            if (i % 10 == 0) {
+                lines.add("// comment " + i);
+            } else if (i % 7_001 == 0) {
+                lines.add("invalid..rule" + i);
+            } else {
+                lines.add("rule" + i + ".测试");
+                expected.add(new Rule("rule" + i + ".测试"));
+            }
+        }
+        Path file = Files.write(directory.resolve("rules.dat"), lines, StandardCharsets.UTF_8);
+
+        List<RuleParseException> errors = new CopyOnWriteArrayList<>();
+        List<Rule> rules = new RuleParser(errors::add).parse(file);
+
+        assertThat(rules).isEqualTo(expected);
+        assertThat(errors).extracting(RuleParseException::getLineNumber)
+            .containsExactlyInAnyOrder(7_002L, 14_003L, 21_004L, 28_005L, 35_006L, 42_007L, 49_008L, 56_009L, 63_010L, 77_012L, 84_013L, 91_014L, 98_015L);
+        assertThat(errors).allSatisfy(error -> assertThat(error.getLine()).isEqualTo("invalid..rule" + (error.getLineNumber() - 1)));
     }
 
     @Test
@@ -108,6 +168,10 @@ class RuleParserShould {
         );
     }
 
+    private static ByteArrayInputStream stream(String rules) {
+        return new ByteArrayInputStream(rules.getBytes(StandardCharsets.UTF_8));
+    }
+
     private void assertRulePattern(String ruleToParse, String expectedPattern) {
         Optional<Rule> rule = parser.parseLine(ruleToParse);
         assertThat(rule).isPresent();
@@ -66,4 +66,22 @@ class RuleShould {
         assertThat(rule.match("")).isEmpty();
         assertThat(rule.match(null)).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void matchStartInPlace() {
+        assertThat(new Rule("test.com").matchStart("Sub.TEST.com.")).isEqualTo(4);
+        assertThat(new Rule("*.com").matchStart(new StringBuilder("a.b.com"))).isEqualTo(2);
+        assertThat(new Rule("!test.com").matchStart("sub.test.com")).isEqualTo(9);
+        assertThat(new Rule("test.com").matchStart("example.com")).isEqualTo(-1);
+        assertThat(new Rule("test.com").matchStart("com")).isEqualTo(-1);
+        assertThat(new Rule("!com").matchStart("test.com")).isEqualTo(-1);
+        assertThat(new Rule("com").matchStart("")).isEqualTo(-1);
+        assertThat(new Rule("com").matchStart(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void matchIgnoringCase() {
+        assertThat(new Rule("Test.COM").match("sub.test.Com.")).contains("test.Com");
+        assertThat(new Rule("!test.com").match("SUB.TEST.COM")).contains("COM");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsciiCharSequenceShould {
+
+    @Test
+    void viewByteRange() {
+        byte[] bytes = "GET test.com HTTP".getBytes(StandardCharsets.US_ASCII);
+        AsciiCharSequence host = AsciiCharSequence.of(bytes, 4, 8);
+
+        assertThat(host.length()).isEqualTo(8);
+        assertThat(host.charAt(5)).isEqualTo('c');
+        assertThat(host.subSequence(5, 8).toString()).isEqualTo("com");
+        assertThat(host.toString()).isEqualTo("test.com");
+        assertThat(host.isAscii()).isTrue();
+    }
+
+    @Test
+    void viewRemainingBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        buffer.put("xxtest.com".getBytes(StandardCharsets.US_ASCII));
+        buffer.flip();
+        buffer.position(2);
+
+        assertThat(AsciiCharSequence.of(buffer).toString()).isEqualTo("test.com");
+        assertThat(buffer.position()).isEqualTo(2);
+    }
+
+    @Test
+    void decodeUtf8() {
+        byte[] bytes = "教育.个人.hk".getBytes(StandardCharsets.UTF_8);
+        AsciiCharSequence host = AsciiCharSequence.of(bytes, 0, bytes.length);
+
+        assertThat(host.isAscii()).isFalse();
+        assertThat(host.decode()).isEqualTo("教育.个人.hk");
+    }
+
+    @Test
+    void rejectInvalidRange() {
+        assertThatThrownBy(() -> AsciiCharSequence.of(new byte[4], 2, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> AsciiCharSequence.of(new byte[4], 0, 4).charAt(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -33,6 +33,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class DomainUtilsShould {
 
+    @Test
+    void lowerCaseIndependentOfLocale() {
+        String lowerCase = "example.com";
+        assertThat(DomainUtils.toLowerCase(lowerCase)).isSameAs(lowerCase);
+        assertThat(DomainUtils.toLowerCase("ExAMPLE.İNFO")).isEqualTo("example.info");
+        assertThat(DomainUtils.toLowerCase("ÄBC.个人")).isEqualTo("äbc.个人");
+    }
+
     @Test
     void joinLabels() {
         assertThat(DomainUtils.joinLabels(null)).isNull();
@@ -54,4 +62,59 @@ class DomainUtilsShould {
         assertThat(DomainUtils.splitLabels("个人.hk")).containsExactly("个人", "hk");
 
     }
+
+    @Test
+    void countLabels() {
+        assertThat(DomainUtils.countLabels(null)).isEqualTo(0);
+        assertThat(DomainUtils.countLabels(" ")).isEqualTo(0);
+        assertThat(DomainUtils.countLabels("com")).isEqualTo(1);
+        assertThat(DomainUtils.countLabels("*.test.com")).isEqualTo(3);
+        assertThat(DomainUtils.countLabels("test.com.")).isEqualTo(2);
+        assertThat(DomainUtils.countLabels("test..com")).isEqualTo(3);
+    }
+
+    @Test
+    void findLastLabelEnd() {
+        assertThat(DomainUtils.lastLabelEnd("")).isEqualTo(0);
+        assertThat(DomainUtils.lastLabelEnd("..")).isEqualTo(0);
+        assertThat(DomainUtils.lastLabelEnd("com")).isEqualTo(3);
+        assertThat(DomainUtils.lastLabelEnd("test.com")).isEqualTo(8);
+        assertThat(DomainUtils.lastLabelEnd("test.com.")).isEqualTo(8);
+    }
+
+    @Test
+    void findLabelStart() {
+        assertThat(DomainUtils.labelStart("com", 3)).isEqualTo(0);
+        assertThat(DomainUtils.labelStart("test.com", 8)).isEqualTo(5);
+        assertThat(DomainUtils.labelStart("test.com", 4)).isEqualTo(0);
+        assertThat(DomainUtils.labelStart("test..com", 5)).isEqualTo(5);
+        assertThat(DomainUtils.labelStart("个人.hk", 2)).isEqualTo(0);
+    }
+
+    @Test
+    void findSuffixStart() {
+        assertThat(DomainUtils.suffixStart("sub.test.com", 1)).isEqualTo(9);
+        assertThat(DomainUtils.suffixStart("sub.test.com.", 2)).isEqualTo(4);
+        assertThat(DomainUtils.suffixStart("sub.test.com", 3)).isEqualTo(0);
+        assertThat(DomainUtils.suffixStart("sub.test.com", 4)).isEqualTo(-1);
+        assertThat(DomainUtils.suffixStart("sub.test.com", 0)).isEqualTo(-1);
+        assertThat(DomainUtils.suffixStart("..", 1)).isEqualTo(-1);
+    }
+
+    @Test
+    void detectAceLabels() {
+        assertThat(DomainUtils.containsAceLabel("xn--55qx5d.cn")).isTrue();
+        assertThat(DomainUtils.containsAceLabel("test.XN--55qx5d.cn")).isTrue();
+        assertThat(DomainUtils.containsAceLabel("testxn--55qx5d.cn")).isFalse();
+        assertThat(DomainUtils.containsAceLabel("xn-")).isFalse();
+        assertThat(DomainUtils.containsAceLabel("个人.hk")).isFalse();
+    }
+
+    @Test
+    void lowerCaseChars() {
+        assertThat(DomainUtils.toLowerCase('A')).isEqualTo('a');
+        assertThat(DomainUtils.toLowerCase('z')).isEqualTo('z');
+        assertThat(DomainUtils.toLowerCase('-')).isEqualTo('-');
+        assertThat(DomainUtils.toLowerCase('Ä')).isEqualTo('ä');
+    }
 }
\ No newline at end of file
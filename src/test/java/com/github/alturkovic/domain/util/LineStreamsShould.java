@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineStreamsShould {
+
+    @Test
+    void readFileLinesInParallel(@TempDir Path directory) throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            expected.add(i % 7 == 0 ? "" : "sub" + i + ".教育.个人.hk");
+        }
+
+        Path file = directory.resolve("domains.txt");
+        Files.write(file, String.join("\r\n", expected).getBytes(StandardCharsets.UTF_8));
+
+        try (Stream<String> lines = LineStreams.lines(file)) {
+            assertThat(lines.parallel().collect(Collectors.toList())).containsExactlyElementsOf(expected);
+        }
+        try (Stream<String> lines = LineStreams.lines(file)) {
+            assertThat(lines.collect(Collectors.toList())).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void numberFileLinesInParallel(@TempDir Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 50_000; i++) {
+            lines.add(i % 3 == 0 ? "" : String.valueOf(i));
+        }
+
+        Path file = directory.resolve("numbers.txt");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        try (Stream<Long> numbers = LineStreams.lines(file, (lineNumber, line) -> line.isEmpty() ? null : lineNumber.getAsLong())) {
+            assertThat(numbers.parallel().filter(Objects::nonNull)).allSatisfy(number -> assertThat(lines.get((int) (number - 1))).isEqualTo(String.valueOf(number)));
+        }
+    }
+
+    @Test
+    void readEmptyFile(@TempDir Path directory) throws IOException {
+        Path file = Files.createFile(directory.resolve("empty.txt"));
+
+        try (Stream<String> lines = LineStreams.lines(file)) {
+            assertThat(lines).isEmpty();
+        }
+    }
+
+    @Test
+    void readReaderLinesInParallel() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add("sub" + i + ".com");
+        }
+
+        try (Stream<String> lines = LineStreams.lines(new StringReader(String.join("\n", expected)))) {
+            assertThat(lines.parallel().collect(Collectors.toList())).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void mapReaderLinesWhenBatchIsProcessed() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            lines.add(String.valueOf(i));
+        }
+
+        AtomicInteger mapped = new AtomicInteger();
+        try (Stream<Long> numbers = LineStreams.lines(new StringReader(String.join("\n", lines)), (lineNumber, line) -> {
+            mapped.incrementAndGet();
+            assertThat(lineNumber.getAsLong()).isEqualTo(Long.parseLong(line));
+            return lineNumber.getAsLong();
+        })) {
+            Spliterator<Long> spliterator = numbers.spliterator();
+            Spliterator<Long> first = spliterator.trySplit();
+            Spliterator<Long> second = spliterator.trySplit();
+            assertThat(mapped).hasValue(0);
+
+            List<Long> collected = new ArrayList<>();
+            second.forEachRemaining(collected::add);
+            first.forEachRemaining(collected::add);
+            spliterator.forEachRemaining(collected::add);
+            assertThat(collected).hasSize(3000).startsWith(1025L).contains(1L, 2048L, 2049L, 3000L);
+            assertThat(mapped).hasValue(3000);
+        }
+    }
+}
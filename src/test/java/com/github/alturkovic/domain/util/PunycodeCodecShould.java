@@ -37,6 +37,14 @@ class PunycodeCodecShould {
         assertPunycodeRecode("test.com", "test.com");
     }
 
+    @Test
+    void keepInvalidAceLabelsWhenRecoding() {
+        PunycodeCodec codec = new PunycodeCodec();
+
+        assertThat(codec.recode(codec.decode("xn--a-ecp.ru"))).isEqualTo("xn--a-ecp.ru");
+        assertThat(codec.recode(codec.decode("xn--abc.com"))).isEqualTo("xn--abc.com");
+    }
+
     private void assertPunycodeRecode(String originalDomain, String expectedDecodedDomain) {
         PunycodeCodec codec = new PunycodeCodec();
         assertThat(codec.decode(originalDomain)).isEqualTo(expectedDecodedDomain);
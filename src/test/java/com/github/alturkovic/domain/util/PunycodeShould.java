@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Alen Turkovic
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.alturkovic.domain.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.IDN;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PunycodeShould {
+
+    @Test
+    void decodeAceLabels() {
+        assertThat(Punycode.toUnicode("xn--ciqpn.hk")).isEqualTo("个人.hk");
+        assertThat(Punycode.toUnicode("www.XN--Bcher-kva.example")).isEqualTo("www.Bücher.example");
+        assertThat(Punycode.toUnicode("xn--fiqs8s.")).isEqualTo("中国.");
+    }
+
+    @Test
+    void keepInvalidAceLabels() {
+        assertThat(Punycode.toUnicode("xn--.com")).isEqualTo("xn--.com");
+        assertThat(Punycode.toUnicode("xn--test-.com")).isEqualTo("xn--test-.com");
+        assertThat(Punycode.toUnicode("xn--99999999999.com")).isEqualTo("xn--99999999999.com");
+        assertThat(Punycode.toUnicode("xn--a!b.com")).isEqualTo("xn--a!b.com");
+    }
+
+    @Test
+    void keepAceLabelsThatDecodeToControlCharacters() {
+        assertThat(Punycode.toUnicode("xn--abc.com")).isEqualTo("xn--abc.com").isEqualTo(IDN.toUnicode("xn--abc.com"));
+    }
+
+    @Test
+    void keepAceLabelsThatDoNotEncodeBackToThemselves() {
+        assertThat(Punycode.toUnicode("xn--a-ecp.ru")).isEqualTo("xn--a-ecp.ru").isEqualTo(IDN.toUnicode("xn--a-ecp.ru"));
+        assertThat(Punycode.toUnicode("xn--A-ECP.ru")).isEqualTo("xn--A-ECP.ru");
+    }
+
+    @Test
+    void encodeNonAsciiLabels() {
+        assertThat(Punycode.toAscii("个人.hk")).isEqualTo("xn--ciqpn.hk");
+        assertThat(Punycode.toAscii("www.Bücher.example")).isEqualTo("www.xn--bcher-kva.example");
+        assertThat(Punycode.toAscii("中国.")).isEqualTo("xn--fiqs8s.");
+    }
+
+    @Test
+    void mapLabelsLikeIdn() {
+        for (String domain : new String[]{"ς.gr", "ΣΟΦΟΣ.gr", "straße.de", "STRASSE.de", "a\u00ADbé.com", "b\u200Dü.com", "Ⅻé.com"}) {
+            assertThat(Punycode.toAscii(domain)).isEqualTo(IDN.toASCII(domain));
+        }
+    }
+
+    @Test
+    void notApplyFullCaseFoldingOrRejectUnassignedCharacters() {
+        assertThat(Punycode.toAscii("ᾈ.gr")).isEqualTo("xn--0qg.gr").isNotEqualTo(IDN.toASCII("ᾈ.gr"));
+        assertThat(Punycode.toAscii("🦊.ws")).isEqualTo("xn--9s9h.ws");
+        assertThatThrownBy(() -> IDN.toASCII("🦊.ws")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void returnSameInstanceWithoutConversion() {
+        String domain = "sub.test.com";
+
+        assertThat(Punycode.toUnicode(domain)).isSameAs(domain);
+        assertThat(Punycode.toAscii(domain)).isSameAs(domain);
+        assertThat(Punycode.toUnicode(null)).isNull();
+    }
+
+    @Test
+    void roundTrip() {
+        for (String domain : new String[]{"ελ", "قطر", "рф", "சிங்கப்பூர்", "ålesund.no", "😀.ws"}) {
+            assertThat(Punycode.toUnicode(Punycode.toAscii(domain))).isEqualTo(domain);
+        }
+    }
+}